@@ -0,0 +1,117 @@
+package com.acadia.acadiastudyplanner.benchmarks;
+
+import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.model.Subject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A generated SQLite database with one user who owns {@code taskCount} tasks, the situation of a
+ * long-time user: nine in ten tasks are completed, the rest pending, spread over twenty subjects.
+ * <p>
+ * DatabaseManager reads its URL once per JVM, and JMH runs each parameter value in its own fork, so
+ * {@link #open} must run before anything else touches DatabaseManager. Generating a million rows
+ * takes a while, so each size is generated once into target/bench-db and later trials start from a
+ * copy; benchmarks that write therefore never change the template.
+ */
+final class BenchmarkDatabase {
+
+    static final int SUBJECTS = 20;
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] TASK_TYPES = {"Assignment", "Reading", "Revision", "Project"};
+
+    private final int userId;
+    private final List<Integer> subjectIds;
+
+    private BenchmarkDatabase(int userId, List<Integer> subjectIds) {
+        this.userId = userId;
+        this.subjectIds = subjectIds;
+    }
+
+    static BenchmarkDatabase open(int taskCount) throws IOException, SQLException {
+        Path dir = Paths.get(System.getProperty("acadia.bench.dir", "target/bench-db")).toAbsolutePath();
+        Files.createDirectories(dir);
+        Path template = dir.resolve("tasks-" + taskCount + ".db");
+        Path work = dir.resolve("work-" + taskCount + ".db");
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            Files.deleteIfExists(Paths.get(work + suffix));
+        }
+        boolean generated = Files.exists(template);
+        if (generated) {
+            Files.copy(template, work, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        System.setProperty("acadia.db.url", "jdbc:sqlite:" + work);
+        DatabaseManager.initializeDatabase(); // throws on a failed migration, failing the trial setup
+        if (!generated) {
+            generate(taskCount);
+            try (Connection conn = DatabaseManager.connect(); Statement stmt = conn.createStatement()) {
+                stmt.execute("VACUUM INTO '" + template.toString().replace("'", "''") + "'");
+            }
+        }
+
+        int userId = DatabaseManager.loadUserIds().get(0);
+        List<Integer> subjectIds = new ArrayList<>();
+        for (Subject subject : DatabaseManager.loadSubjects(userId)) {
+            subjectIds.add(subject.getId());
+        }
+        return new BenchmarkDatabase(userId, subjectIds);
+    }
+
+    private static void generate(int taskCount) throws SQLException {
+        System.out.println("Generating a benchmark database with " + taskCount + " tasks...");
+        DatabaseManager.insertUser("bench", "bench", "Benchmark User");
+        int userId = DatabaseManager.loadUserIds().get(0);
+        List<Integer> subjectIds = new ArrayList<>();
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjectIds.add(DatabaseManager.insertSubject(new Subject("Subject " + i, 1 + i % 5, null), userId));
+        }
+
+        Random random = new Random(42); // the same data on every machine
+        int today = (int) LocalDate.now().toEpochDay();
+        String sql = "INSERT INTO StudyTask (UserID, SubjectID, Title, TaskType, DurationMinutes, DeadlineDay, Status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseManager.connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < taskCount; i++) {
+                    pstmt.setInt(1, userId);
+                    pstmt.setInt(2, subjectIds.get(random.nextInt(SUBJECTS)));
+                    pstmt.setString(3, "Task " + i);
+                    pstmt.setString(4, TASK_TYPES[random.nextInt(TASK_TYPES.length)]);
+                    pstmt.setInt(5, 15 * (1 + random.nextInt(12)));
+                    pstmt.setInt(6, today - 730 + random.nextInt(800));
+                    pstmt.setString(7, i % 10 == 0 ? "Pending" : "Completed");
+                    pstmt.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) pstmt.executeBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    int getUserId() {
+        return userId;
+    }
+
+    int subjectId(int i) {
+        return subjectIds.get(i % subjectIds.size());
+    }
+}
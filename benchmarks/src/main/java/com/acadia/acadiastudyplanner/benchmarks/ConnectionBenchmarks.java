@@ -0,0 +1,76 @@
+package com.acadia.acadiastudyplanner.benchmarks;
+
+import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of one short statement with and without the connection pool: {@link #unpooled} opens a
+ * fresh DriverManager connection for it, as connect() did before the pool, and {@link #pooled} runs
+ * it on a DatabaseManager.connect() lease. Both run the same query against the same file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionBenchmarks {
+
+    private static final String SQL = "SELECT COUNT(*) FROM Subject WHERE UserID = ?";
+
+    private BenchmarkDatabase db;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException, SQLException {
+        db = BenchmarkDatabase.open(1000);
+        url = System.getProperty("acadia.db.url");
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        DatabaseManager.shutdown();
+    }
+
+    @Benchmark
+    public int unpooled() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url)) {
+            return countSubjects(conn);
+        }
+    }
+
+    @Benchmark
+    public int pooled() throws SQLException {
+        try (Connection conn = DatabaseManager.connect()) {
+            return countSubjects(conn);
+        }
+    }
+
+    private int countSubjects(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL)) {
+            pstmt.setInt(1, db.getUserId());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
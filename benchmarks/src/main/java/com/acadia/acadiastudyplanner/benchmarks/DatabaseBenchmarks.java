@@ -0,0 +1,91 @@
+package com.acadia.acadiastudyplanner.benchmarks;
+
+import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.SubjectProgress;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseManager reads and writes against a user with 1k, 100k and 1M tasks. The pending-task and
+ * progress reads sit next to loadTasksForProgress so the status-filtered and rollup paths can be
+ * compared with the full load they replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseBenchmarks {
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private BenchmarkDatabase db;
+    private int deadlineDay;
+    private int writes;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException, SQLException {
+        db = BenchmarkDatabase.open(taskCount);
+        deadlineDay = (int) LocalDate.now().plusDays(7).toEpochDay();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        DatabaseManager.shutdown();
+    }
+
+    @Benchmark
+    public List<StudyTask> loadTasksForProgress() throws SQLException {
+        return DatabaseManager.loadTasksForProgress(db.getUserId());
+    }
+
+    @Benchmark
+    public List<StudyTask> loadPendingTasks() throws SQLException {
+        return DatabaseManager.loadTasksByStatus(db.getUserId(), "Pending");
+    }
+
+    @Benchmark
+    public List<StudyTask> loadPendingTasksFirstPage() throws SQLException {
+        return DatabaseManager.loadTasksPage(db.getUserId(), "Pending", null, 50);
+    }
+
+    @Benchmark
+    public List<SubjectProgress> loadSubjectProgress() throws SQLException {
+        return DatabaseManager.loadSubjectProgress(db.getUserId());
+    }
+
+    @Benchmark
+    public void saveScheduledTask() throws SQLException {
+        int n = writes++;
+        int start = WeekTime.minuteOfWeek(n % 7, 8 * 60 + (n % 20) * 30);
+        DatabaseManager.saveScheduledTask(db.getUserId(), db.subjectId(n), "Benchmark block " + n, start, start + 30);
+    }
+
+    @Benchmark
+    public int insertAcademicTask() throws SQLException {
+        int n = writes++;
+        StudyTask task = new StudyTask(db.subjectId(n), "Benchmark task " + n, "Assignment", 60, deadlineDay);
+        return DatabaseManager.insertAcademicTask(task, db.getUserId());
+    }
+}
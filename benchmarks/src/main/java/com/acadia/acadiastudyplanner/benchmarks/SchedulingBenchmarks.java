@@ -0,0 +1,127 @@
+package com.acadia.acadiastudyplanner.benchmarks;
+
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.Subject;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+import com.acadia.acadiastudyplanner.service.PromptBuilder;
+import com.acadia.acadiastudyplanner.service.RemoteScheduleEngine;
+import com.acadia.acadiastudyplanner.service.ScheduleStreamParser;
+import com.acadia.acadiastudyplanner.service.SchedulingContext;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU side of a remote schedule request, without the network: building the prompt from a
+ * scheduling context, serialising the request payload, and turning the model's answer back into
+ * ScheduleBlocks, both from the streamed SSE response and from the response cache's JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingBenchmarks {
+
+    // Server-sent events carry the answer in small text fragments; this is roughly what the API sends.
+    private static final int SSE_FRAGMENT_CHARS = 64;
+
+    @Param({"20", "200", "2000"})
+    public int pendingTasks;
+
+    private final Gson gson = new Gson();
+    private PromptBuilder prompts;
+    private SchedulingContext context;
+    private PromptBuilder.Prompt prompt;
+    private byte[] streamedResponse;
+    private String cachedResponse;
+
+    @Setup
+    public void prepare() {
+        Random random = new Random(42);
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < BenchmarkDatabase.SUBJECTS; i++) {
+            subjects.add(new Subject(i + 1, "Subject " + i, 1 + i % 5, LocalDate.now().plusDays(30 + i).toString()));
+        }
+        int today = (int) LocalDate.now().toEpochDay();
+        List<StudyTask> tasks = new ArrayList<>();
+        for (int i = 0; i < pendingTasks; i++) {
+            StudyTask task = new StudyTask(i + 1, 1 + random.nextInt(subjects.size()), "Task " + i, "Assignment",
+                    15 * (1 + random.nextInt(12)), today + random.nextInt(60), WeekTime.UNSET, WeekTime.UNSET, "Pending");
+            task.setSubjectName(subjects.get(task.getSubjectId() - 1).getName());
+            tasks.add(task);
+        }
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        for (int day = 0; day < WeekTime.DAYS.size(); day++) {
+            slots.add(new AvailabilitySlot(2 * day + 1, WeekTime.minuteOfWeek(day, 9 * 60), WeekTime.minuteOfWeek(day, 12 * 60)));
+            slots.add(new AvailabilitySlot(2 * day + 2, WeekTime.minuteOfWeek(day, 14 * 60), WeekTime.minuteOfWeek(day, 18 * 60)));
+        }
+        context = new SchedulingContext(1, WeekTime.upcomingWeekStart(LocalDate.now()), subjects, tasks, slots, 15, 60,
+                "Short sessions, hardest subjects first.");
+        prompts = new PromptBuilder(PromptBuilder.DEFAULT_TOKEN_BUDGET);
+        prompt = prompts.build(context, null);
+
+        // A week of half-hour blocks, one per task up to what fits into the availability.
+        List<ScheduleBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < Math.min(pendingTasks, 7 * 14); i++) {
+            StudyTask task = tasks.get(i);
+            int start = WeekTime.minuteOfWeek(i % 7, 9 * 60 + (i / 7) * 30);
+            blocks.add(ScheduleBlock.of(task.getSubjectName(), task.getTitle(), start, start + 30));
+        }
+        cachedResponse = gson.toJson(blocks);
+        streamedResponse = toServerSentEvents(cachedResponse);
+    }
+
+    private byte[] toServerSentEvents(String answer) {
+        StringBuilder events = new StringBuilder();
+        for (int i = 0; i < answer.length(); i += SSE_FRAGMENT_CHARS) {
+            String fragment = answer.substring(i, Math.min(answer.length(), i + SSE_FRAGMENT_CHARS));
+            events.append("data: {\"candidates\": [{\"content\": {\"parts\": [{\"text\": ")
+                    .append(gson.toJson(fragment))
+                    .append("}], \"role\": \"model\"}}]}\r\n\r\n");
+        }
+        return events.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public PromptBuilder.Prompt buildPrompt() {
+        return prompts.build(context, null);
+    }
+
+    @Benchmark
+    public String serialisePayload() {
+        return RemoteScheduleEngine.buildJsonPayload(prompt);
+    }
+
+    @Benchmark
+    public int parseStreamedResponse(Blackhole blackhole) throws IOException {
+        return ScheduleStreamParser.parse(new ByteArrayInputStream(streamedResponse), blackhole::consume);
+    }
+
+    @Benchmark
+    public ScheduleBlock[] parseCachedResponse() {
+        return gson.fromJson(cachedResponse, ScheduleBlock[].class);
+    }
+}
@@ -0,0 +1,185 @@
+package com.acadia.acadiastudyplanner;
+
+import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+import com.acadia.acadiastudyplanner.service.RemoteScheduleEngine;
+import com.acadia.acadiastudyplanner.service.SchedulingService;
+import com.acadia.acadiastudyplanner.service.SchedulingService.EngineMode;
+import com.acadia.acadiastudyplanner.service.ServiceRegistry;
+import com.acadia.acadiastudyplanner.service.UserSession;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Headless entry point that pre-computes the weekly schedule of every user, e.g. from a nightly job:
+ * <pre>
+ *   mvn javafx:run@batch   (or: java -cp ... com.acadia.acadiastudyplanner.BatchScheduler [userId ...])
+ * </pre>
+ * Without arguments every registered user is scheduled. Generations run concurrently: on virtual
+ * threads when the remote engine is used, since those calls mostly wait on the network, and on a pool
+ * sized to the CPU count for the local solver. A single writer stores the results, committing
+ * {@code acadia.batch.commitSize} users per transaction. The engine is chosen with
+ * -Dacadia.scheduler.engine as in the app; -Dacadia.batch.concurrency caps the generations in flight
+ * (default 16 remote, one per CPU local).
+ */
+public final class BatchScheduler {
+
+    private static final int COMMIT_SIZE = Math.max(1, Integer.getInteger("acadia.batch.commitSize", 50));
+
+    private BatchScheduler() {}
+
+    /** Outcome of one user's generation; {@code blocks} is null when it failed. */
+    private static final class Result {
+        private final int userId;
+        private final List<ScheduleBlock> blocks;
+        private final Throwable error;
+        private final long nanos;
+
+        private Result(int userId, List<ScheduleBlock> blocks, Throwable error, long nanos) {
+            this.userId = userId;
+            this.blocks = blocks;
+            this.error = error;
+            this.nanos = nanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int failures;
+        try {
+            // A failed migration aborts the run: nothing is generated against a half-migrated schema.
+            DatabaseManager.initializeDatabase();
+            List<Integer> userIds = args.length > 0
+                    ? Arrays.stream(args).map(Integer::valueOf).collect(Collectors.toList())
+                    : DatabaseManager.loadUserIds();
+            EngineMode mode = EngineMode.fromSystemProperties();
+            boolean remote = mode == EngineMode.REMOTE || (mode == EngineMode.HYBRID && RemoteScheduleEngine.isConfigured());
+            int concurrency = Math.max(1, Integer.getInteger("acadia.batch.concurrency",
+                    remote ? 16 : Runtime.getRuntime().availableProcessors()));
+
+            System.out.println(String.format("Batch scheduling %d users with the %s engine, %d at a time, %d per commit.",
+                    userIds.size(), mode, concurrency, COMMIT_SIZE));
+            failures = run(userIds, mode, remote, concurrency);
+        } finally {
+            DatabaseManager.shutdown();
+        }
+        if (failures > 0) System.exit(1);
+    }
+
+    /** @return the number of users whose schedule could not be generated or stored */
+    private static int run(List<Integer> userIds, EngineMode mode, boolean remote, int concurrency) throws InterruptedException {
+        long started = System.nanoTime();
+        // Stored plans are replaced from the Monday the run plans for; earlier weeks stay as history.
+        int weekStart = WeekTime.upcomingWeekStart(LocalDate.now());
+        BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+        // The semaphore bounds the work in flight; virtual threads alone would start every user at once.
+        Semaphore permits = new Semaphore(concurrency);
+        ExecutorService executor = remote
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(concurrency);
+        Thread submitter = new Thread(() -> {
+            for (int userId : userIds) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                executor.execute(() -> {
+                    try {
+                        results.add(generate(userId, mode));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }, "acadia-batch-submit");
+        submitter.setDaemon(true);
+        submitter.start();
+
+        // This thread is the only writer, which suits SQLite's single write lock.
+        Map<Integer, List<ScheduleBlock>> pending = new LinkedHashMap<>();
+        List<Long> latencies = new ArrayList<>(userIds.size());
+        int failures = 0;
+        int stored = 0;
+        for (int i = 0; i < userIds.size(); i++) {
+            Result result = results.take();
+            latencies.add(result.nanos);
+            if (result.error != null) {
+                failures++;
+                System.err.println("User " + result.userId + ": schedule generation failed: " + result.error.getMessage());
+                continue;
+            }
+            pending.put(result.userId, result.blocks);
+            if (pending.size() >= COMMIT_SIZE) {
+                int written = flush(weekStart, pending);
+                stored += written;
+                failures += pending.size() - written;
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            int written = flush(weekStart, pending);
+            stored += written;
+            failures += pending.size() - written;
+        }
+        submitter.join();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        report(userIds.size(), stored, failures, System.nanoTime() - started, latencies);
+        return failures;
+    }
+
+    private static Result generate(int userId, EngineMode mode) {
+        long start = System.nanoTime();
+        try {
+            ServiceRegistry services = new ServiceRegistry(new UserSession(userId, null));
+            List<ScheduleBlock> blocks = services.schedulingService(mode).generateWeeklySchedule();
+            return new Result(userId, blocks, null, System.nanoTime() - start);
+        } catch (Exception e) {
+            return new Result(userId, null, SchedulingService.unwrap(e), System.nanoTime() - start);
+        }
+    }
+
+    /** @return the number of users stored; on failure the whole batch is rolled back. */
+    private static int flush(int weekStart, Map<Integer, List<ScheduleBlock>> batch) {
+        try {
+            DatabaseManager.replaceSchedulesFrom(weekStart, batch);
+            return batch.size();
+        } catch (SQLException e) {
+            System.err.println("Storing schedules for users " + batch.keySet() + " failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static void report(int users, int stored, int failures, long elapsedNanos, List<Long> latencies) {
+        double seconds = elapsedNanos / 1e9;
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.println(String.format("Scheduled %d/%d users in %.1fs (%.1f users/s), %d failed.",
+                stored, users, seconds, seconds > 0 ? stored / seconds : 0.0, failures));
+        if (sorted.length > 0) {
+            System.out.println(String.format("Per-user latency: p50 %dms, p95 %dms, p99 %dms, max %dms.",
+                    percentileMillis(sorted, 50), percentileMillis(sorted, 95), percentileMillis(sorted, 99),
+                    TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length - 1])));
+        }
+    }
+
+    // Nearest-rank percentile over sorted nanosecond latencies.
+    private static long percentileMillis(long[] sorted, int percentile) {
+        int index = Math.max(0, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.min(index, sorted.length - 1)]);
+    }
+}
@@ -0,0 +1,87 @@
+package com.acadia.acadiastudyplanner;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs whenever the JavaFX Application Thread stops processing events for longer than a threshold
+ * (-Dacadia.ui.stallMillis, default 250; 0 disables it).
+ * <p>
+ * A watchdog thread posts a ping with {@code Platform.runLater} and waits for it to run. If the ping
+ * is still queued after the threshold, the FX thread's current stack is logged once, which names the
+ * blocking call; when the ping finally runs, the total stall time is logged.
+ */
+final class FxStallDetector {
+
+    private static final int STACK_FRAMES = 12;
+
+    private final long thresholdMillis;
+    private final AtomicLong pingSentAt = new AtomicLong(); // System.nanoTime() of the queued ping, 0 if none
+    private final AtomicLong reportedPing = new AtomicLong();
+    private volatile Thread fxThread;
+    private ScheduledExecutorService scheduler;
+
+    FxStallDetector(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    static FxStallDetector fromSystemProperties() {
+        return new FxStallDetector(Long.getLong("acadia.ui.stallMillis", 250));
+    }
+
+    synchronized void start() {
+        if (scheduler != null || thresholdMillis <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "acadia-fx-stall-detector");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(10, thresholdMillis / 4);
+        scheduler.scheduleWithFixedDelay(this::check, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        long sent = pingSentAt.get();
+        if (sent == 0) {
+            pingSentAt.set(now);
+            Platform.runLater(() -> pong(now));
+            return;
+        }
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(now - sent);
+        if (waitedMillis >= thresholdMillis && reportedPing.getAndSet(sent) != sent) {
+            System.err.println("FX thread blocked for " + waitedMillis + " ms so far:" + stackOf(fxThread));
+        }
+    }
+
+    // Runs on the FX thread.
+    private void pong(long sent) {
+        fxThread = Thread.currentThread();
+        long stalledMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent);
+        if (reportedPing.get() == sent) {
+            System.err.println("FX thread stall ended after " + stalledMillis + " ms.");
+        }
+        pingSentAt.set(0);
+    }
+
+    private static String stackOf(Thread thread) {
+        if (thread == null) return " (FX thread not seen yet)";
+        StringBuilder trace = new StringBuilder();
+        StackTraceElement[] frames = thread.getStackTrace();
+        for (int i = 0; i < Math.min(STACK_FRAMES, frames.length); i++) {
+            trace.append("\n\tat ").append(frames[i]);
+        }
+        return trace.toString();
+    }
+}
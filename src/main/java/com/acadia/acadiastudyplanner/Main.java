@@ -1,26 +1,61 @@
 package com.acadia.acadiastudyplanner;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.Objects;
 
+import com.acadia.acadiastudyplanner.controller.DataTasks;
 import com.acadia.acadiastudyplanner.data.DatabaseManager;
 
 public class Main extends Application {
 
     public static Scene scene;
 
+    private final FxStallDetector stallDetector = FxStallDetector.fromSystemProperties();
+    private Parent loginRoot;
+    // FX thread only. The database may fail before the stage is shown or after, so both are kept.
+    private Stage stage;
+    private Throwable databaseFailure;
+
+    // -Dacadia.startup.exitAfterFirstFrame=true quits once the first frame is up and the database is
+    // ready: the training run that records the AppCDS archive (see the appcds profile in pom.xml).
+    private static volatile boolean databaseReady;
+    private static volatile boolean firstFrameShown;
+
+    /**
+     * Runs on the launcher thread while the FX thread is still idle. Database startup goes to the data
+     * thread first, so every later UI read or write queues behind the migrations, and the login view
+     * is built here in parallel with it. Nodes may be created off the FX thread as long as they are
+     * not yet part of a showing scene.
+     */
+    @Override
+    public void init() throws IOException {
+        StartupTimeline.mark("init()");
+        DataTasks.run(() -> {
+            prepareDatabase();
+            return null;
+        }, ignored -> exitIfTrainingRun(), error -> {
+            databaseFailure = error;
+            if (stage != null) reportDatabaseFailure();
+        });
+        loginRoot = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/com/acadia/acadiastudyplanner/view/login-view.fxml")));
+        StartupTimeline.mark("login view loaded");
+    }
+
     @Override
     public void start(Stage primaryStage) {
-        DatabaseManager.initializeDatabase();
+        StartupTimeline.mark("start()");
+        stallDetector.start();
         try {
-            Parent root = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/com/acadia/acadiastudyplanner/view/login-view.fxml")));
-            scene = new Scene(root, 500, 600);
+            scene = new Scene(loginRoot, 500, 600);
 
             // Add main stylesheet programmatically
             // FIX: Removed the unsupported external Google Font URL.
@@ -33,11 +68,71 @@ public class Main extends Application {
             primaryStage.setScene(scene);
             primaryStage.setResizable(false);
             primaryStage.show();
+            StartupTimeline.mark("stage shown");
+            stage = primaryStage;
+            if (databaseFailure != null) {
+                reportDatabaseFailure();
+                return;
+            }
+            // The pulse that lays out the shown scene is the one that renders its first frame.
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    StartupTimeline.firstFrame();
+                    firstFrameShown = true;
+                    exitIfTrainingRun();
+                }
+            });
 
-        } catch (IOException | NullPointerException e) {
+        } catch (NullPointerException e) {
             e.printStackTrace();
-            System.err.println("Failed to load the initial FXML file or CSS.");
+            System.err.println("Failed to load the initial CSS.");
+        }
+    }
+
+    // Runs on the data thread.
+    private static void prepareDatabase() throws SQLException {
+        DatabaseManager.initializeDatabase();
+        StartupTimeline.mark("schema up to date");
+        DatabaseManager.warmUp();
+        StartupTimeline.mark("connection pool warm");
+        // The demo account the login screen advertises.
+        if (!DatabaseManager.userExists("user")) {
+            DatabaseManager.insertUser("user", "pass", "Acadia Student");
+            System.out.println("Default user ('user'/'pass' with DisplayName 'Acadia Student') created in DB.");
         }
+        StartupTimeline.mark("default user ready");
+        databaseReady = true;
+    }
+
+    // Without its database nobody can log in, so say why and quit rather than leave a login that cannot work.
+    private void reportDatabaseFailure() {
+        System.err.println("Database startup failed: " + databaseFailure.getMessage());
+        if (Boolean.getBoolean("acadia.startup.exitAfterFirstFrame")) {
+            Platform.exit(); // an unattended training run must not wait on a dialog
+            return;
+        }
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.initOwner(stage);
+        alert.setTitle("Database Error");
+        alert.setHeaderText(null);
+        alert.setContentText("Acadia could not open its database and will close.\n\n" + databaseFailure.getMessage());
+        alert.showAndWait();
+        Platform.exit();
+    }
+
+    private static void exitIfTrainingRun() {
+        if (Boolean.getBoolean("acadia.startup.exitAfterFirstFrame") && databaseReady && firstFrameShown) {
+            Platform.exit();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stallDetector.stop();
+        // Release the pooled SQLite connections so the database file is closed cleanly.
+        DatabaseManager.shutdown();
     }
 
     public static Scene getScene() {
@@ -45,6 +140,7 @@ public class Main extends Application {
     }
 
     public static void main(String[] args) {
+        StartupTimeline.mark("main()");
         launch(args);
     }
-}
\ No newline at end of file
+}
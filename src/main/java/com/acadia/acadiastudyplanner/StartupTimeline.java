@@ -0,0 +1,55 @@
+package com.acadia.acadiastudyplanner;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records when each startup phase finishes, measured from JVM start, and prints the breakdown of
+ * time-to-first-frame once the first frame is up (-Dacadia.startup.report=true). Phases run on
+ * several threads (launcher, data and FX), so every line names its thread; phases that finish after
+ * the report are printed as they arrive.
+ */
+final class StartupTimeline {
+
+    private static final boolean REPORT = Boolean.getBoolean("acadia.startup.report");
+
+    // nanoTime has no fixed origin, so it is anchored to the process start time once, here.
+    private static final long ORIGIN_NANOS = System.nanoTime() - millisSinceProcessStart() * 1_000_000;
+
+    private static final List<String> LINES = new ArrayList<>();
+    private static long previousNanos = ORIGIN_NANOS;
+    private static boolean reported;
+
+    private StartupTimeline() {}
+
+    static synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        String line = String.format("%7d ms  (+%5d ms)  %-28s [%s]", (now - ORIGIN_NANOS) / 1_000_000,
+                (now - previousNanos) / 1_000_000, phase, Thread.currentThread().getName());
+        previousNanos = now;
+        if (reported) {
+            if (REPORT) System.out.println("Startup: " + line);
+        } else {
+            LINES.add(line);
+        }
+    }
+
+    /** Marks the first frame and prints everything recorded so far. */
+    static synchronized void firstFrame() {
+        if (reported) return;
+        mark("first frame");
+        reported = true;
+        if (REPORT) {
+            System.out.println("Startup timeline (since JVM start):");
+            LINES.forEach(line -> System.out.println("  " + line));
+        }
+        LINES.clear();
+    }
+
+    private static long millisSinceProcessStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Math.max(0, Instant.now().toEpochMilli() - start.toEpochMilli()))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,59 @@
+package com.acadia.acadiastudyplanner.controller;
+
+import com.acadia.acadiastudyplanner.data.UserRepository;
+import com.acadia.acadiastudyplanner.service.ServiceRegistry;
+import com.acadia.acadiastudyplanner.service.UserSession;
+import javafx.fxml.FXMLLoader;
+import javafx.util.Callback;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.util.Objects;
+
+/**
+ * FXML controller factory that injects the session's services. A controller declares what it needs
+ * through its constructor: {@link ServiceRegistry}, {@link UserSession}, {@link UserRepository}, or
+ * nothing (the sign-in and registration screens, which run before there is a session).
+ */
+public final class ControllerFactory implements Callback<Class<?>, Object> {
+
+    private final ServiceRegistry services; // null before sign-in
+
+    public ControllerFactory(ServiceRegistry services) {
+        this.services = services;
+    }
+
+    /** A loader for a view under /com/acadia/acadiastudyplanner/view/ whose controller gets these services. */
+    public static FXMLLoader loader(String fxmlFile, ServiceRegistry services) {
+        URL location = Objects.requireNonNull(ControllerFactory.class.getResource("/com/acadia/acadiastudyplanner/view/" + fxmlFile));
+        FXMLLoader loader = new FXMLLoader(location);
+        loader.setControllerFactory(new ControllerFactory(services));
+        return loader;
+    }
+
+    @Override
+    public Object call(Class<?> type) {
+        try {
+            for (Constructor<?> constructor : type.getConstructors()) {
+                Class<?>[] parameters = constructor.getParameterTypes();
+                if (parameters.length != 1) continue;
+                if (parameters[0] == ServiceRegistry.class) return constructor.newInstance(requireServices(type));
+                if (parameters[0] == UserSession.class) return constructor.newInstance(requireServices(type).getSession());
+                if (parameters[0] == UserRepository.class) return constructor.newInstance(requireServices(type).getRepository());
+            }
+            return type.getConstructor().newInstance();
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Failed to create controller " + type.getName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No usable constructor for controller " + type.getName(), e);
+        }
+    }
+
+    private ServiceRegistry requireServices(Class<?> type) {
+        if (services == null) {
+            throw new IllegalStateException(type.getSimpleName() + " requires a signed-in session.");
+        }
+        return services;
+    }
+}
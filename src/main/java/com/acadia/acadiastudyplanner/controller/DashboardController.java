@@ -2,15 +2,19 @@ package com.acadia.acadiastudyplanner.controller;
 
 import com.acadia.acadiastudyplanner.Main;
 import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
 import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+import com.acadia.acadiastudyplanner.service.SchedulingService;
+import com.acadia.acadiastudyplanner.service.ServiceRegistry;
 import javafx.animation.FadeTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -19,11 +23,9 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.ToggleButton;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -31,11 +33,13 @@ import javafx.util.Duration;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 public class DashboardController implements Initializable {
@@ -51,7 +55,27 @@ public class DashboardController implements Initializable {
     @FXML private Button completeButton;
     @FXML private Button generateScheduleButton;
 
+    private static final int PENDING_PAGE_SIZE = 50;
+
     private final ObservableList<StudyTask> pendingTasks = FXCollections.observableArrayList();
+    private int pendingListVersion; // bumped on every reload so pages of an older list are dropped
+    private boolean pendingPageLoading;
+    private boolean morePendingPages;
+    private WeekScheduleGrid scheduleGrid;
+    private CompletableFuture<List<ScheduleBlock>> generation; // non-null while a generation is running
+    private int streamedBlocks;
+
+    private static final List<String> PAGES = List.of("subjects-view.fxml", "progress-view.fxml", "settings-view.fxml");
+
+    private final ServiceRegistry services;
+    private final int userId;
+    private final ViewManager views;
+
+    public DashboardController(ServiceRegistry services) {
+        this.services = services;
+        this.userId = services.getSession().getUserId();
+        this.views = new ViewManager(services);
+    }
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -65,8 +89,10 @@ public class DashboardController implements Initializable {
         loadPendingTasks();
         if (schedulePane != null) {
             populateScheduleGrid();
+            extendHorizon();
         }
         themeToggle.selectedProperty().addListener((obs, wasSelected, isSelected) -> updateTheme(isSelected));
+        views.preload(PAGES);
     }
 
     private void setupTaskListView() {
@@ -86,72 +112,152 @@ public class DashboardController implements Initializable {
                             item.getDurationEstimate());
                     setText(display);
                     setStyle(item.getStatus().equals("Pending") ? "-fx-font-weight: bold; -fx-text-fill: #ffa000;" : "-fx-font-weight: normal; -fx-text-fill: #999999;");
+                    // The last loaded row scrolled into view: fetch the next page behind it.
+                    if (getIndex() == pendingTasks.size() - 1) loadNextPendingPage();
                 }
             }
         });
     }
 
+    /** Reloads the pending list from its first page; later pages load as the list is scrolled. */
     private void loadPendingTasks() {
-        int userId = LoginController.currentUserID;
-        if (userId == -1) return;
-        try {
-            List<StudyTask> filteredTasks = DatabaseManager.loadTasksForProgress(userId).stream()
-                    .filter(task -> task.getStatus().equalsIgnoreCase("Pending"))
-                    .collect(Collectors.toList());
-            pendingTasks.setAll(filteredTasks);
-            if (pendingTasks.isEmpty()) {
-                pendingTasksListView.setPlaceholder(new Label("No outstanding academic work defined."));
-            }
-        } catch (SQLException e) {
+        pendingListVersion++;
+        pendingPageLoading = false;
+        morePendingPages = true;
+        pendingTasks.clear();
+        pendingTasksListView.setPlaceholder(new Label("Loading workload..."));
+        loadNextPendingPage();
+    }
+
+    private void loadNextPendingPage() {
+        if (pendingPageLoading || !morePendingPages) return;
+        pendingPageLoading = true;
+        int version = pendingListVersion;
+        StudyTask after = pendingTasks.isEmpty() ? null : pendingTasks.get(pendingTasks.size() - 1);
+        DataTasks.run(() -> services.getRepository().getPendingTasksPage(after, PENDING_PAGE_SIZE), page -> {
+            if (version != pendingListVersion) return;
+            pendingPageLoading = false;
+            morePendingPages = page.size() == PENDING_PAGE_SIZE;
+            pendingTasks.addAll(page);
+            pendingTasksListView.setPlaceholder(new Label("No outstanding academic work defined."));
+        }, error -> {
+            if (version != pendingListVersion) return;
+            pendingPageLoading = false;
+            morePendingPages = false;
+            pendingTasksListView.setPlaceholder(new Label("Workload unavailable."));
             showAlert("Database Error", "Failed to load pending workload.");
-        }
+        });
     }
 
     @FXML
     private void handleMarkComplete() {
         StudyTask selectedTask = pendingTasksListView.getSelectionModel().getSelectedItem();
         if (selectedTask == null) return;
-        try {
-            DatabaseManager.updateTaskStatus(selectedTask.getId(), "Completed");
+        completeButton.setDisable(true);
+        DataTasks.run(() -> {
+            services.getRepository().updateTaskStatus(selectedTask.getId(), "Completed");
+            return null;
+        }, ignored -> {
             pendingTasks.remove(selectedTask);
+            repairSchedule();
             showInfo("Success", String.format("Task '%s' marked as Complete!", selectedTask.getTitle()));
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to mark task as complete: " + e.getMessage());
-        }
+        }, error -> {
+            completeButton.setDisable(pendingTasksListView.getSelectionModel().getSelectedItem() == null);
+            showAlert("Database Error", "Failed to mark task as complete: " + error.getMessage());
+        });
     }
 
     @FXML
     private void handleGenerateSchedule() {
-        if (generateScheduleButton != null) {
-            generateScheduleButton.setDisable(true);
-            generateScheduleButton.setText("Generating...");
+        // While a generation is running the button cancels it, so repeated clicks never queue more work.
+        if (generation != null) {
+            generation.cancel(true);
+            return;
+        }
+        SchedulingService service;
+        try {
+            service = services.schedulingService();
+        } catch (IllegalStateException e) {
+            showAlert("Scheduling Failed", e.getMessage());
+            return;
         }
-        new Thread(() -> {
-            try {
-                Thread.sleep(1500); // Simulate network delay
-                javafx.application.Platform.runLater(() -> {
-                    if (generateScheduleButton != null) {
-                        generateScheduleButton.setText("Generate Schedule");
-                        generateScheduleButton.setDisable(false);
+        clearSchedule();
+        streamedBlocks = 0;
+        CompletableFuture<List<ScheduleBlock>> current = service.generateWeeklyScheduleAsync(SchedulingService.DEFAULT_TIMEOUT, true,
+                block -> Platform.runLater(() -> {
+                    if (generation == null) return; // finished or cancelled before this block was drawn
+                    addScheduleBlock(block);
+                    streamedBlocks++;
+                    updateGenerateButton();
+                }));
+        generation = current;
+        updateGenerateButton();
+        current.whenComplete((blocks, error) -> Platform.runLater(() -> {
+            generation = null;
+            updateGenerateButton();
+            if (error == null) {
+                showSchedule(blocks);
+                showInfo("Success", "The optimized weekly schedule has been generated!");
+                return;
+            }
+            reloadSchedule(); // discard partially streamed blocks
+            Throwable cause = SchedulingService.unwrap(error);
+            if (cause instanceof CancellationException) return;
+            if (cause instanceof TimeoutException) {
+                showAlert("Scheduling Failed", "Schedule generation timed out. Please try again.");
+            } else {
+                showAlert("Scheduling Failed", "Error generating schedule: " + cause.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * Patches the stored schedule after an edit on this screen, moving only the affected blocks.
+     * Skipped while a full generation is running, since its result replaces the schedule anyway.
+     */
+    private void repairSchedule() {
+        if (generation != null) return;
+        services.schedulingService(SchedulingService.EngineMode.LOCAL).repairScheduleAsync()
+                .whenComplete((repair, error) -> Platform.runLater(() -> {
+                    if (error != null) {
+                        System.err.println("Schedule repair failed: " + SchedulingService.unwrap(error).getMessage());
+                    } else if (repair.hasChanges() && generation == null) {
+                        showSchedule(repair.getSchedule());
                     }
-                    showInfo("Success", "The optimized weekly schedule has been generated!");
-                });
-            } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    if (generateScheduleButton != null) {
-                        generateScheduleButton.setText("Generate Schedule");
-                        generateScheduleButton.setDisable(false);
+                }));
+    }
+
+    /**
+     * Keeps {@link SchedulingService#HORIZON_WEEKS} weeks planned by adding the weeks that have come
+     * into range since the last visit. Nothing to do with the default single-week horizon.
+     */
+    private void extendHorizon() {
+        if (SchedulingService.HORIZON_WEEKS <= 1) return;
+        services.schedulingService(SchedulingService.EngineMode.LOCAL).extendHorizonAsync(SchedulingService.HORIZON_WEEKS)
+                .whenComplete((added, error) -> Platform.runLater(() -> {
+                    if (error != null) {
+                        System.err.println("Extending the schedule horizon failed: " + SchedulingService.unwrap(error).getMessage());
+                    } else if (!added.isEmpty() && generation == null) {
+                        reloadSchedule();
                     }
-                    showAlert("Scheduling Failed", "Error generating schedule: " + e.getMessage());
-                });
-            }
-        }).start();
+                }));
+    }
+
+    private void updateGenerateButton() {
+        if (generateScheduleButton == null) return;
+        if (generation == null) {
+            generateScheduleButton.setText("Generate Schedule");
+        } else if (streamedBlocks == 0) {
+            generateScheduleButton.setText("Generating... (Cancel)");
+        } else {
+            generateScheduleButton.setText(String.format("Generating %d blocks... (Cancel)", streamedBlocks));
+        }
     }
 
     @FXML
     private void handleManagePreferences() {
         try {
-            FXMLLoader loader = new FXMLLoader(Objects.requireNonNull(getClass().getResource("/com/acadia/acadiastudyplanner/view/preferences-dialog.fxml")));
+            FXMLLoader loader = ControllerFactory.loader("preferences-dialog.fxml", services);
             Stage stage = new Stage();
             stage.setTitle("AI Scheduling Preferences & Availability");
             stage.setScene(new Scene(loader.load(), 460, 650));
@@ -161,6 +267,7 @@ public class DashboardController implements Initializable {
             stage.getScene().getStylesheets().addAll(mainBorderPane.getScene().getStylesheets());
             stage.showAndWait();
             loadGreeting();
+            repairSchedule();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -169,7 +276,7 @@ public class DashboardController implements Initializable {
     @FXML
     private void handleNewTask() {
         try {
-            FXMLLoader loader = new FXMLLoader(Objects.requireNonNull(getClass().getResource("/com/acadia/acadiastudyplanner/view/new-task-dialog.fxml")));
+            FXMLLoader loader = ControllerFactory.loader("new-task-dialog.fxml", services);
             Stage stage = new Stage();
             stage.setTitle("Define New Academic Work");
             stage.setScene(new Scene(loader.load(), 420, 550));
@@ -179,6 +286,7 @@ public class DashboardController implements Initializable {
             stage.getScene().getStylesheets().addAll(mainBorderPane.getScene().getStylesheets());
             stage.showAndWait();
             loadPendingTasks();
+            repairSchedule();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -197,7 +305,7 @@ public class DashboardController implements Initializable {
             default: updateActiveButton(null); return;
         }
         try {
-            setView(FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/com/acadia/acadiastudyplanner/view/" + fxmlFile))));
+            setView(views.show(fxmlFile));
         } catch (IOException | NullPointerException e) {
             showAlert("Navigation Error", "Could not load the '" + clickedButton.getText() + "' page.");
             e.printStackTrace();
@@ -206,18 +314,15 @@ public class DashboardController implements Initializable {
 
     private void loadGreeting() {
         if (greetingLabel != null) {
-            try {
-                Map<String, Object> prefs = DatabaseManager.loadUserPreferences(LoginController.currentUserID);
-                greetingLabel.setText("Hello, " + prefs.get("DisplayName") + "!");
-            } catch (SQLException e) {
-                greetingLabel.setText("Hello, Student!");
-            }
+            DataTasks.run(() -> services.getRepository().getPreferences(),
+                    prefs -> greetingLabel.setText("Hello, " + prefs.get("DisplayName") + "!"),
+                    error -> greetingLabel.setText("Hello, Student!"));
         }
     }
 
     private void loadDashboardLogo() {
         try {
-            ImageView logoView = new ImageView(new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/acadia/acadiastudyplanner/images/darkmode.png"))));
+            ImageView logoView = new ImageView(ImageCache.get("/com/acadia/acadiastudyplanner/images/darkmode.png"));
             logoView.setFitHeight(120);
             logoView.setPreserveRatio(true);
             logoContainer.getChildren().add(0, logoView);
@@ -264,30 +369,46 @@ public class DashboardController implements Initializable {
     }
 
     private void populateScheduleGrid() {
-        GridPane grid = new GridPane();
-        grid.setHgap(10);
-        grid.setVgap(10);
-        AnchorPane.setTopAnchor(grid, 0.0);
-        AnchorPane.setBottomAnchor(grid, 0.0);
-        AnchorPane.setLeftAnchor(grid, 0.0);
-        AnchorPane.setRightAnchor(grid, 0.0);
-        String[] days = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
-        for (int i = 0; i < days.length; i++) {
-            grid.add(new Label(days[i]) {{ getStyleClass().add("grid-day-header"); }}, i, 0);
-        }
-        grid.add(createScheduleItem("Data Structures", "9-11 AM", "red-item"), 0, 1);
-        grid.add(createScheduleItem("Calculus II", "1-3 PM", "green-item"), 0, 2);
-        grid.add(createScheduleItem("Software Eng.", "10-12 PM", "green-item"), 1, 1);
-        grid.add(createScheduleItem("Study Break", "12-1 PM", "gray-item"), 2, 1);
-        schedulePane.getChildren().add(grid);
+        scheduleGrid = new WeekScheduleGrid();
+        AnchorPane.setTopAnchor(scheduleGrid, 0.0);
+        AnchorPane.setBottomAnchor(scheduleGrid, 0.0);
+        AnchorPane.setLeftAnchor(scheduleGrid, 0.0);
+        AnchorPane.setRightAnchor(scheduleGrid, 0.0);
+        schedulePane.getChildren().add(scheduleGrid);
+        reloadSchedule();
     }
 
-    private VBox createScheduleItem(String title, String time, String styleClass) {
-        VBox itemBox = new VBox(-2);
-        itemBox.setPadding(new Insets(8, 12, 8, 12));
-        itemBox.getStyleClass().addAll("schedule-item", styleClass);
-        itemBox.getChildren().addAll(new Label(title) {{ getStyleClass().add("item-title"); }}, new Label(time) {{ getStyleClass().add("item-time"); }});
-        return itemBox;
+    // Redraws the grid from the stored schedule, unless a generation has started drawing meanwhile.
+    private void reloadSchedule() {
+        DataTasks.run(() -> DatabaseManager.loadScheduledBlocks(userId), blocks -> {
+            if (generation == null) showSchedule(blocks);
+        }, error -> System.err.println("Failed to load stored schedule: " + error.getMessage()));
+    }
+
+    private void clearSchedule() {
+        if (scheduleGrid != null) scheduleGrid.clear();
+    }
+
+    // The grid shows the upcoming week only; later weeks of a multi-week horizon stay in the database.
+    private void showSchedule(List<ScheduleBlock> blocks) {
+        if (scheduleGrid == null) return;
+        int weekStart = WeekTime.upcomingWeekStart(LocalDate.now());
+        scheduleGrid.setBlocks(blocks.stream()
+                .filter(block -> isInWeek(block, weekStart))
+                .collect(Collectors.toList()));
+    }
+
+    private void addScheduleBlock(ScheduleBlock block) {
+        if (scheduleGrid != null) scheduleGrid.addBlock(block);
+    }
+
+    private static boolean isInWeek(ScheduleBlock block, int weekStart) {
+        try {
+            int day = block.dayIn(weekStart);
+            return day >= weekStart && day < weekStart + 7;
+        } catch (IllegalArgumentException e) {
+            return false; // the grid could not place it anyway
+        }
     }
 
     private void showAlert(String title, String content) {
@@ -0,0 +1,44 @@
+package com.acadia.acadiastudyplanner.controller;
+
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work for the views off the JavaFX Application Thread.
+ * <p>
+ * Work runs as a {@link Task} on a single background thread, so reads and writes from the UI are
+ * applied in the order they were submitted (a save followed by a reload never sees the old data).
+ * The outcome is delivered back on the FX thread through the task's event handlers. Reads are
+ * mostly served from the session's in-memory repository, so one thread keeps up with the UI.
+ */
+public final class DataTasks {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "acadia-data");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private DataTasks() {}
+
+    /**
+     * @param onSuccess called on the FX thread with the result
+     * @param onFailure called on the FX thread with the exception {@code work} threw
+     */
+    public static <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(event -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(event -> onFailure.accept(task.getException()));
+        EXECUTOR.execute(task);
+        return task;
+    }
+}
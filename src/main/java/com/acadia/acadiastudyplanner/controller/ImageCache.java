@@ -0,0 +1,23 @@
+package com.acadia.acadiastudyplanner.controller;
+
+import javafx.scene.image.Image;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decoded images from the classpath, read once per path. An {@link Image} can be shown by any number
+ * of ImageViews, so the login, registration and dashboard logos share one decoded copy.
+ */
+public final class ImageCache {
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    private ImageCache() {}
+
+    /** @throws NullPointerException if there is no resource at {@code path} */
+    public static Image get(String path) {
+        return IMAGES.computeIfAbsent(path, p -> new Image(Objects.requireNonNull(ImageCache.class.getResourceAsStream(p))));
+    }
+}
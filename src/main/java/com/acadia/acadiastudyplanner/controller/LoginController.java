@@ -2,6 +2,8 @@ package com.acadia.acadiastudyplanner.controller;
 
 import com.acadia.acadiastudyplanner.Main;
 import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.service.ServiceRegistry;
+import com.acadia.acadiastudyplanner.service.UserSession;
 import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -19,7 +21,6 @@ import javafx.util.Duration;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.Objects;
 import java.util.ResourceBundle;
 
@@ -30,15 +31,11 @@ public class LoginController implements Initializable {
     @FXML private Label errorLabel;
     @FXML private VBox logoContainer;
 
-    // A static variable to hold the logged-in user's ID (Crucial for later persistence tasks)
-    public static int currentUserID = -1;
-    public static String currentUsername = null;
-
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         // Logo setup (increased size)
         try {
-            Image logo = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/acadia/acadiastudyplanner/images/lightmode.png")));
+            Image logo = ImageCache.get("/com/acadia/acadiastudyplanner/images/lightmode.png");
             ImageView logoView = new ImageView(logo);
             logoView.setFitHeight(300);
             logoView.setPreserveRatio(true);
@@ -49,17 +46,6 @@ public class LoginController implements Initializable {
             fallbackTitle.getStyleClass().add("app-title-login");
             logoContainer.getChildren().add(0, fallbackTitle);
         }
-
-        // --- DATABASE SETUP FOR DEFAULT USER ---
-        try {
-            // FIX: The insertUser method now requires a third argument (displayName).
-            if (!DatabaseManager.userExists("user")) {
-                DatabaseManager.insertUser("user", "pass", "Acadia Student"); // Added Display Name
-                System.out.println("Default user ('user'/'pass' with DisplayName 'Acadia Student') created in DB.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error checking/creating default user: " + e.getMessage());
-        }
     }
 
     @FXML
@@ -67,22 +53,21 @@ public class LoginController implements Initializable {
         String username = usernameField.getText().trim();
         String password = passwordField.getText();
 
-        int loggedInId = -1;
-        try {
-            // DATABASE VALIDATION & GET USER ID
-            loggedInId = DatabaseManager.validateAndGetUserID(username, password);
-        } catch (SQLException e) {
-            System.err.println("Login database error: " + e.getMessage());
-            errorLabel.setText("Database connection error.");
-            errorLabel.setVisible(true);
-            return;
-        }
+        // DATABASE VALIDATION & GET USER ID
+        DataTasks.run(() -> DatabaseManager.validateAndGetUserID(username, password),
+                loggedInId -> completeLogin(loggedInId, username),
+                error -> {
+                    System.err.println("Login database error: " + error.getMessage());
+                    errorLabel.setText("Database connection error.");
+                    errorLabel.setVisible(true);
+                });
+    }
 
+    private void completeLogin(int loggedInId, String username) {
         if (loggedInId != -1) {
-            currentUserID = loggedInId; // Set the static ID for session management
-            currentUsername = username; // Set the static username
             errorLabel.setVisible(false);
-            switchToDashboard();
+            // The session travels with the dashboard's controllers instead of living in a static field.
+            switchToDashboard(new ServiceRegistry(new UserSession(loggedInId, username)));
         } else {
             errorLabel.setText("Invalid username or password.");
             errorLabel.setVisible(true);
@@ -107,9 +92,9 @@ public class LoginController implements Initializable {
         }
     }
 
-    private void switchToDashboard() {
+    private void switchToDashboard(ServiceRegistry services) {
         try {
-            Parent dashboardRoot = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/com/acadia/acadiastudyplanner/view/dashboard-view.fxml")));
+            Parent dashboardRoot = ControllerFactory.loader("dashboard-view.fxml", services).load();
             Stage stage = (Stage) usernameField.getScene().getWindow();
             Scene dashboardScene = new Scene(dashboardRoot, 1100, 700);
             dashboardScene.getStylesheets().addAll(stage.getScene().getStylesheets());
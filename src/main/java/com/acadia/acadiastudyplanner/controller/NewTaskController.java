@@ -1,8 +1,9 @@
 package com.acadia.acadiastudyplanner.controller;
 
-import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.data.UserRepository;
 import com.acadia.acadiastudyplanner.model.Subject;
 import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.WeekTime;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -14,7 +15,6 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.net.URL;
-import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
@@ -33,6 +33,12 @@ public class NewTaskController implements Initializable {
     private final ObservableList<Subject> subjects = FXCollections.observableArrayList();
     private static final List<String> TASK_TYPES = List.of("Review", "Problem Set", "Essay Draft", "Reading", "Project Work", "Exam Prep");
 
+    private final UserRepository repository;
+
+    public NewTaskController(UserRepository repository) {
+        this.repository = repository;
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         loadSubjectsForComboBox();
@@ -57,18 +63,12 @@ public class NewTaskController implements Initializable {
     }
 
     private void loadSubjectsForComboBox() {
-        int userId = LoginController.currentUserID;
-        if (userId == -1) return;
-
-        try {
-            List<Subject> loadedSubjects = DatabaseManager.loadSubjects(userId);
-            subjects.addAll(loadedSubjects);
-            subjectComboBox.setItems(subjects);
-        } catch (SQLException e) {
-            System.err.println("Failed to load subjects for task dialog: " + e.getMessage());
+        subjectComboBox.setItems(subjects);
+        DataTasks.run(repository::getSubjects, subjects::addAll, error -> {
+            System.err.println("Failed to load subjects for task dialog: " + error.getMessage());
             messageLabel.setText("Error loading subjects.");
             messageLabel.setVisible(true);
-        }
+        });
     }
 
     @FXML
@@ -82,31 +82,34 @@ public class NewTaskController implements Initializable {
             return;
         }
 
-        // Format deadline date to standard SQL string
-        String deadlineDate = deadlinePicker.getValue().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        int durationMinutes = WeekTime.parseDurationMinutes(duration);
+        if (durationMinutes == WeekTime.UNSET) {
+            showMessage("Duration must be a length of time, e.g. 90, 45m, 2h or 1h 30m.");
+            return;
+        }
+
+        // Deadline is stored as an epoch-day
+        int deadlineDay = WeekTime.epochDay(deadlinePicker.getValue());
 
         // Get Subject ID
         Subject selectedSubject = subjectComboBox.getSelectionModel().getSelectedItem();
         int subjectId = (selectedSubject != null) ? selectedSubject.getId() : -1;
 
-        try {
-            // Use the updated constructor and insertion method
-            StudyTask newTask = new StudyTask(subjectId, title, taskType, duration, deadlineDate);
-
-            // Insert academic task into DB
-            int newId = DatabaseManager.insertAcademicTask(newTask, LoginController.currentUserID);
+        // Use the updated constructor and insertion method
+        StudyTask newTask = new StudyTask(subjectId, title, taskType, durationMinutes, deadlineDay);
 
+        // Insert academic task into DB
+        DataTasks.run(() -> repository.insertTask(newTask), newId -> {
             if (newId != -1) {
                 // Task saved successfully. Close the dialog.
                 handleCancel();
             } else {
                 showMessage("Failed to save task. Database error.");
             }
-
-        } catch (SQLException e) {
-            System.err.println("Database error saving new task: " + e.getMessage());
+        }, error -> {
+            System.err.println("Database error saving new task: " + error.getMessage());
             showMessage("Database error while saving task.");
-        }
+        });
     }
 
     @FXML
@@ -1,6 +1,8 @@
 package com.acadia.acadiastudyplanner.controller;
 
-import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.data.UserRepository;
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.WeekTime;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -16,11 +18,7 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.net.URL;
-import java.sql.SQLException;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -32,13 +30,18 @@ public class PreferencesController implements Initializable {
     @FXML private ComboBox<String> dayComboBox;
     @FXML private TextField startHourField;
     @FXML private TextField endHourField;
-    @FXML private ListView<String> availabilityListView;
+    @FXML private ListView<AvailabilitySlot> availabilityListView;
 
-    private final ObservableList<String> availableSlots = FXCollections.observableArrayList();
-    private final Map<String, Integer> slotIdMap = new HashMap<>(); // Holds DB IDs for existing slots
+    private final ObservableList<AvailabilitySlot> availableSlots = FXCollections.observableArrayList();
 
     // Days array for ComboBox initialization
-    private static final List<String> DAYS = Arrays.asList("MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN");
+    private static final List<String> DAYS = WeekTime.DAYS;
+
+    private final UserRepository repository;
+
+    public PreferencesController(UserRepository repository) {
+        this.repository = repository;
+    }
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -46,18 +49,18 @@ public class PreferencesController implements Initializable {
         availabilityListView.setItems(availableSlots);
 
         // --- NEW: Custom Cell Factory for Visual Consistency ---
-        availabilityListView.setCellFactory(lv -> new ListCell<String>() {
+        availabilityListView.setCellFactory(lv -> new ListCell<AvailabilitySlot>() {
             @Override
-            protected void updateItem(String item, boolean empty) {
+            protected void updateItem(AvailabilitySlot item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
                     setGraphic(null);
                     setStyle(null); // Clear style when empty
                 } else {
-                    setText(item);
+                    setText(item.toString());
                     // Highlight weekends
-                    if (item.startsWith("SAT") || item.startsWith("SUN")) {
+                    if (item.isWeekend()) {
                         setStyle("-fx-background-color: #3f3f3f; -fx-text-fill: #ffa000;"); // Yellow text on dark background
                     } else {
                         setStyle("-fx-background-color: transparent; -fx-text-fill: white;");
@@ -74,7 +77,7 @@ public class PreferencesController implements Initializable {
     private void setupSlotDeletion() {
         availabilityListView.setOnMouseClicked(event -> {
             if (event.getClickCount() == 2) {
-                String selectedSlot = availabilityListView.getSelectionModel().getSelectedItem();
+                AvailabilitySlot selectedSlot = availabilityListView.getSelectionModel().getSelectedItem();
                 if (selectedSlot != null) {
                     confirmAndDeleteSlot(selectedSlot);
                 }
@@ -82,46 +85,35 @@ public class PreferencesController implements Initializable {
         });
     }
 
-    private void confirmAndDeleteSlot(String slotString) {
+    private void confirmAndDeleteSlot(AvailabilitySlot slot) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Confirm Deletion");
         alert.setHeaderText("Delete Available Slot?");
-        alert.setContentText("Are you sure you want to delete this time slot: " + slotString + "?");
+        alert.setContentText("Are you sure you want to delete this time slot: " + slot + "?");
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            availableSlots.remove(slotString);
-            slotIdMap.remove(slotString);
+            availableSlots.remove(slot);
         }
     }
 
     private void loadUserPreferencesAndSlots() {
-        int userId = LoginController.currentUserID;
-        if (userId == -1) return;
-
-        try {
-            Map<String, Object> prefs = DatabaseManager.loadUserPreferences(userId);
+        availabilityListView.setPlaceholder(new Label("Loading availability..."));
+        DataTasks.run(repository::getPreferences, prefs -> {
             if (!prefs.isEmpty()) {
                 breakLengthField.setText(String.valueOf(prefs.get("BreakLength")));
                 breakFrequencyField.setText(String.valueOf(prefs.get("BreakFrequency")));
                 prefsTextArea.setText((String)prefs.get("LearningPreferences"));
             }
+        }, this::showLoadError);
+        DataTasks.run(repository::getSlots, slots -> {
+            availableSlots.setAll(slots);
+            availabilityListView.setPlaceholder(new Label("No availability slots yet."));
+        }, this::showLoadError);
+    }
 
-            List<Map<String, Object>> slots = DatabaseManager.loadAvailableSlots(userId);
-            availableSlots.clear();
-            slotIdMap.clear();
-            for (Map<String, Object> slot : slots) {
-                String slotString = formatSlotString(
-                        (String)slot.get("DayOfWeek"),
-                        (String)slot.get("StartTime"),
-                        (String)slot.get("EndTime")
-                );
-                availableSlots.add(slotString);
-                slotIdMap.put(slotString, (Integer)slot.get("SlotID"));
-            }
-        } catch (SQLException e) {
-            showError("Load Error", "Failed to load preferences and slots: " + e.getMessage());
-        }
+    private void showLoadError(Throwable error) {
+        showError("Load Error", "Failed to load preferences and slots: " + error.getMessage());
     }
 
     @FXML
@@ -140,8 +132,19 @@ public class PreferencesController implements Initializable {
             return;
         }
 
-        String slotString = formatSlotString(day, start, end);
-        availableSlots.add(slotString);
+        AvailabilitySlot newSlot;
+        try {
+            newSlot = new AvailabilitySlot(day, start, end);
+        } catch (IllegalArgumentException e) {
+            showError("Input Error", "End time must be after start time, and both must be valid (00:00 - 24:00).");
+            return;
+        }
+        if (availableSlots.stream().anyMatch(newSlot::overlaps)) {
+            showError("Input Error", "This slot overlaps an existing available slot.");
+            return;
+        }
+        availableSlots.add(newSlot);
+        FXCollections.sort(availableSlots);
 
         dayComboBox.getSelectionModel().clearSelection();
         startHourField.clear();
@@ -150,30 +153,28 @@ public class PreferencesController implements Initializable {
 
     @FXML
     private void handleSaveAllPreferences() {
-        int userId = LoginController.currentUserID;
-        if (userId == -1) return;
-
+        int breakLength;
+        int breakFrequency;
         try {
-            int breakLength = parseNumericField(breakLengthField, "Break Length");
-            int breakFrequency = parseNumericField(breakFrequencyField, "Break Frequency");
-            String prefsText = prefsTextArea.getText();
-
-            DatabaseManager.saveUserPreferences(userId, breakLength, breakFrequency, prefsText);
-
-            DatabaseManager.deleteAllAvailableSlots(userId);
-            for (String slotString : availableSlots) {
-                String[] parts = slotString.split(" "); // "DAY HH:MM - HH:MM"
-                DatabaseManager.addAvailableSlot(userId, parts[0], parts[1], parts[3]);
-            }
-
-            showInfo("Success", "All preferences and availability slots have been saved!");
-            handleCancel();
-
+            breakLength = parseNumericField(breakLengthField, "Break Length");
+            breakFrequency = parseNumericField(breakFrequencyField, "Break Frequency");
         } catch (NumberFormatException e) {
-        } catch (SQLException e) {
-            showError("Database Error", "Failed to save data: " + e.getMessage());
-            e.printStackTrace();
+            return;
         }
+        String prefsText = prefsTextArea.getText();
+        List<AvailabilitySlot> slots = List.copyOf(availableSlots); // the list view keeps changing on this thread
+
+        DataTasks.run(() -> {
+            repository.savePreferences(breakLength, breakFrequency, prefsText);
+            repository.replaceSlots(slots);
+            return null;
+        }, ignored -> {
+            showInfo("Success", "All preferences and availability slots have been saved!");
+            handleCancel();
+        }, error -> {
+            showError("Database Error", "Failed to save data: " + error.getMessage());
+            error.printStackTrace();
+        });
     }
 
     @FXML
@@ -182,10 +183,6 @@ public class PreferencesController implements Initializable {
         stage.close();
     }
 
-    private String formatSlotString(String day, String start, String end) {
-        return String.format("%s %s - %s", day, start, end);
-    }
-
     private int parseNumericField(TextField field, String fieldName) throws NumberFormatException {
         try {
             return Integer.parseInt(field.getText().trim());
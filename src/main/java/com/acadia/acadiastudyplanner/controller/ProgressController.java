@@ -1,7 +1,7 @@
 package com.acadia.acadiastudyplanner.controller;
 
-import com.acadia.acadiastudyplanner.data.DatabaseManager;
-import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.data.UserRepository;
+import com.acadia.acadiastudyplanner.model.SubjectProgress;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
@@ -11,67 +11,46 @@ import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.VBox;
 
 import java.net.URL;
-import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.ResourceBundle;
 
-public class ProgressController implements Initializable {
+public class ProgressController implements Initializable, RefreshableView {
 
     @FXML private FlowPane progressFlowPane;
 
+    private final UserRepository repository;
+
+    public ProgressController(UserRepository repository) {
+        this.repository = repository;
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         loadProgressCards();
     }
 
+    @Override
+    public void refresh() {
+        loadProgressCards();
+    }
+
     private void loadProgressCards() {
-        progressFlowPane.getChildren().clear(); // Clear static data
+        progressFlowPane.getChildren().setAll(new Label("Loading progress..."));
+        DataTasks.run(repository::getSubjectProgress, this::showProgressCards, error -> {
+            System.err.println("Error loading progress data: " + error.getMessage());
+            progressFlowPane.getChildren().setAll(new Label("Failed to load progress due to a database error."));
+        });
+    }
 
-        int userId = LoginController.currentUserID;
-        if (userId == -1) {
-            System.err.println("User not logged in. Cannot load progress.");
+    private void showProgressCards(List<SubjectProgress> progressData) {
+        progressFlowPane.getChildren().clear();
+        if (progressData.isEmpty()) {
+            progressFlowPane.getChildren().add(new Label("No subjects or tasks defined yet."));
             return;
         }
-
-        try {
-            List<StudyTask> tasks = DatabaseManager.loadTasksForProgress(userId);
-
-            // Map to hold aggregation: Subject Name -> [Total Count, Completed Count]
-            Map<String, int[]> progressData = new HashMap<>();
-
-            // --- Step 1: Aggregate Data ---
-            for (StudyTask task : tasks) {
-                String subjectName = task.getSubjectName();
-                progressData.putIfAbsent(subjectName, new int[]{0, 0}); // [Total, Completed]
-
-                int[] counts = progressData.get(subjectName);
-                counts[0]++; // Increment total task count
-
-                if (task.getStatus().equalsIgnoreCase("Completed")) {
-                    counts[1]++; // Increment completed task count
-                }
-            }
-
-            // --- Step 2: Generate UI Cards ---
-            if (progressData.isEmpty()) {
-                progressFlowPane.getChildren().add(new Label("No subjects or tasks defined yet."));
-            } else {
-                for (Map.Entry<String, int[]> entry : progressData.entrySet()) {
-                    String subject = entry.getKey();
-                    int total = entry.getValue()[0];
-                    int completed = entry.getValue()[1];
-
-                    double progress = (total > 0) ? (double) completed / total : 0.0;
-
-                    progressFlowPane.getChildren().add(createProgressCard(subject, progress, completed, total));
-                }
-            }
-
-        } catch (SQLException e) {
-            System.err.println("Error loading progress data: " + e.getMessage());
-            progressFlowPane.getChildren().add(new Label("Failed to load progress due to a database error."));
+        for (SubjectProgress subject : progressData) {
+            progressFlowPane.getChildren().add(createProgressCard(subject.getSubjectName(), subject.getFraction(),
+                    subject.getCompleted(), subject.getTotal()));
         }
     }
 
@@ -0,0 +1,11 @@
+package com.acadia.acadiastudyplanner.controller;
+
+/**
+ * A controller whose view is cached by {@link ViewManager} and shown again later. {@code initialize()}
+ * runs only once per view, so the data it loaded is reloaded here instead.
+ */
+public interface RefreshableView {
+
+    /** Called on the FX thread each time the cached view is shown again. */
+    void refresh();
+}
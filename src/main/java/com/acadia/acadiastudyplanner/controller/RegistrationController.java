@@ -17,7 +17,6 @@ import javafx.util.Duration;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.Objects;
 import java.util.ResourceBundle;
 
@@ -38,7 +37,7 @@ public class RegistrationController implements Initializable {
     public void initialize(URL url, ResourceBundle resourceBundle) {
         // Logo setup for visual consistency
         try {
-            Image logo = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/acadia/acadiastudyplanner/images/lightmode.png")));
+            Image logo = ImageCache.get("/com/acadia/acadiastudyplanner/images/lightmode.png");
             ImageView logoView = new ImageView(logo);
             logoView.setFitHeight(180);
             logoView.setPreserveRatio(true);
@@ -79,25 +78,28 @@ public class RegistrationController implements Initializable {
             return;
         }
 
-        try {
+        DataTasks.run(() -> {
             // 2. Database Check
-            if (DatabaseManager.userExists(username)) {
+            if (DatabaseManager.userExists(username)) return false;
+            // 3. Database Insert (Now includes displayName)
+            DatabaseManager.insertUser(username, password, displayName);
+            return true;
+        }, registered -> {
+            if (!registered) {
                 showMessage("Username already taken.", "error-label");
-            } else {
-                // 3. Database Insert (Now includes displayName)
-                DatabaseManager.insertUser(username, password, displayName);
-                showMessage("Registration successful! Returning to login...", "success-label");
-
-                // Clear fields and automatically switch back after a short delay
-                clearFields();
-                PauseTransition pause = new PauseTransition(Duration.seconds(2));
-                pause.setOnFinished(event -> handleSwitchToLogin());
-                pause.play();
+                return;
             }
-        } catch (SQLException e) {
-            System.err.println("Database error during registration: " + e.getMessage());
+            showMessage("Registration successful! Returning to login...", "success-label");
+
+            // Clear fields and automatically switch back after a short delay
+            clearFields();
+            PauseTransition pause = new PauseTransition(Duration.seconds(2));
+            pause.setOnFinished(event -> handleSwitchToLogin());
+            pause.play();
+        }, error -> {
+            System.err.println("Database error during registration: " + error.getMessage());
             showMessage("Registration failed due to a database error.", "error-label");
-        }
+        });
     }
 
     /**
@@ -1,34 +1,41 @@
 package com.acadia.acadiastudyplanner.controller;
 
-import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.data.UserRepository;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.TextField;
 import java.net.URL;
-import java.sql.SQLException;
-import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
-public class SettingsController implements Initializable {
+public class SettingsController implements Initializable, RefreshableView {
 
     @FXML private TextField userNameField;
 
+    private final UserRepository repository;
+
+    public SettingsController(UserRepository repository) {
+        this.repository = repository;
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         loadUserProfile();
     }
 
+    @Override
+    public void refresh() {
+        loadUserProfile();
+    }
+
     private void loadUserProfile() {
         if (userNameField != null) {
-            try {
-                Map<String, Object> prefs = DatabaseManager.loadUserPreferences(LoginController.currentUserID);
-                userNameField.setText((String) prefs.get("DisplayName"));
-            } catch (SQLException e) {
-                userNameField.setText("Database Error");
-            }
+            userNameField.setPromptText("Loading...");
+            DataTasks.run(repository::getPreferences,
+                    prefs -> userNameField.setText((String) prefs.get("DisplayName")),
+                    error -> userNameField.setText("Database Error"));
         }
     }
 
@@ -39,12 +46,11 @@ public class SettingsController implements Initializable {
             showError("Input Error", "Display Name cannot be empty.");
             return;
         }
-        try {
-            DatabaseManager.updateDisplayName(LoginController.currentUserID, newName);
-            showInfo("Success", "Display Name updated successfully!");
-        } catch (SQLException e) {
-            showError("Database Error", "Failed to update display name: " + e.getMessage());
-        }
+        DataTasks.run(() -> {
+            repository.updateDisplayName(newName);
+            return null;
+        }, ignored -> showInfo("Success", "Display Name updated successfully!"),
+                error -> showError("Database Error", "Failed to update display name: " + error.getMessage()));
     }
 
     @FXML
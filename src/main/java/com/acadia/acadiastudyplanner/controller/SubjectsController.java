@@ -1,6 +1,6 @@
 package com.acadia.acadiastudyplanner.controller;
 
-import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.data.UserRepository;
 import com.acadia.acadiastudyplanner.model.Subject;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -12,11 +12,9 @@ import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import java.net.URL;
-import java.sql.SQLException;
-import java.util.List;
 import java.util.ResourceBundle;
 
-public class SubjectsController implements Initializable {
+public class SubjectsController implements Initializable, RefreshableView {
 
     @FXML private ListView<Subject> subjectsListView;
     @FXML private TextField subjectNameField, difficultyField, examDateField;
@@ -26,6 +24,12 @@ public class SubjectsController implements Initializable {
     private final ObservableList<Subject> subjects = FXCollections.observableArrayList();
     private Subject selectedSubject = null;
 
+    private final UserRepository repository;
+
+    public SubjectsController(UserRepository repository) {
+        this.repository = repository;
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         loadSubjectsFromDatabase();
@@ -39,13 +43,17 @@ public class SubjectsController implements Initializable {
         clearForm();
     }
 
+    @Override
+    public void refresh() {
+        loadSubjectsFromDatabase();
+    }
+
     private void loadSubjectsFromDatabase() {
-        try {
-            List<Subject> loadedSubjects = DatabaseManager.loadSubjects(LoginController.currentUserID);
+        subjectsListView.setPlaceholder(new Label("Loading subjects..."));
+        DataTasks.run(repository::getSubjects, loadedSubjects -> {
             subjects.setAll(loadedSubjects);
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to load subjects: " + e.getMessage());
-        }
+            subjectsListView.setPlaceholder(new Label("No subjects yet."));
+        }, error -> showAlert("Database Error", "Failed to load subjects: " + error.getMessage()));
     }
 
     @FXML
@@ -54,38 +62,45 @@ public class SubjectsController implements Initializable {
             showAlert("Validation Error", "Subject Name and Difficulty are required.");
             return;
         }
+        int difficulty;
         try {
-            int difficulty = Integer.parseInt(difficultyField.getText().trim());
-            String examDate = examDateField.getText().trim();
-            if (selectedSubject == null) {
-                Subject newSubject = new Subject(subjectNameField.getText(), difficulty, examDate);
-                int newId = DatabaseManager.insertSubject(newSubject, LoginController.currentUserID);
-                newSubject.setId(newId);
-                subjects.add(newSubject);
-            } else {
-                selectedSubject.setName(subjectNameField.getText());
-                selectedSubject.setDifficulty(difficulty);
-                selectedSubject.setExamDate(examDate);
-                DatabaseManager.updateSubject(selectedSubject);
-                subjectsListView.refresh();
-            }
-            clearForm();
+            difficulty = Integer.parseInt(difficultyField.getText().trim());
         } catch (NumberFormatException e) {
             showAlert("Validation Error", "Difficulty must be a number.");
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to save subject: " + e.getMessage());
+            return;
+        }
+        String examDate = examDateField.getText().trim();
+        Subject editing = selectedSubject;
+        if (editing != null) {
+            editing.setName(subjectNameField.getText());
+            editing.setDifficulty(difficulty);
+            editing.setExamDate(examDate);
         }
+        Subject saved = editing != null ? editing : new Subject(subjectNameField.getText(), difficulty, examDate);
+        saveButton.setDisable(true);
+        DataTasks.run(() -> {
+            if (editing == null) repository.insertSubject(saved); else repository.updateSubject(saved);
+            return null;
+        }, ignored -> {
+            saveButton.setDisable(false);
+            if (editing == null) subjects.add(saved); else subjectsListView.refresh();
+            clearForm();
+        }, error -> {
+            saveButton.setDisable(false);
+            showAlert("Database Error", "Failed to save subject: " + error.getMessage());
+        });
     }
 
     @FXML private void handleDeleteSubject() {
         if (selectedSubject != null) {
-            try {
-                DatabaseManager.deleteSubject(selectedSubject.getId());
-                subjects.remove(selectedSubject);
+            Subject deleted = selectedSubject;
+            DataTasks.run(() -> {
+                repository.deleteSubject(deleted.getId());
+                return null;
+            }, ignored -> {
+                subjects.remove(deleted);
                 clearForm();
-            } catch (SQLException e) {
-                showAlert("Database Error", "Failed to delete subject: " + e.getMessage());
-            }
+            }, error -> showAlert("Database Error", "Failed to delete subject: " + error.getMessage()));
         }
     }
 
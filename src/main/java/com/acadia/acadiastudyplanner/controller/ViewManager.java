@@ -0,0 +1,90 @@
+package com.acadia.acadiastudyplanner.controller;
+
+import com.acadia.acadiastudyplanner.service.ServiceRegistry;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads each dashboard page's FXML once per session and keeps its root and controller.
+ * <p>
+ * {@link #preload} parses pages on a background thread right after sign-in, which is allowed because
+ * the new nodes are not yet part of a showing scene. {@link #show} then hands back the cached root and
+ * only asks the controller to reload its data ({@link RefreshableView}), so switching pages costs no
+ * FXML parse. A page asked for before its preload finishes waits for that load rather than starting a
+ * second one; a page that was never preloaded is loaded on the spot.
+ */
+public final class ViewManager {
+
+    private static final ExecutorService PRELOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "acadia-view-preload");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ServiceRegistry services;
+    private final Map<String, CompletableFuture<LoadedView>> views = new ConcurrentHashMap<>();
+
+    public ViewManager(ServiceRegistry services) {
+        this.services = services;
+    }
+
+    /** Starts loading these pages in the background; pages already loaded or loading are skipped. */
+    public void preload(List<String> fxmlFiles) {
+        for (String fxmlFile : fxmlFiles) {
+            views.computeIfAbsent(fxmlFile, file -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return load(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, PRELOADER));
+        }
+    }
+
+    /**
+     * The root of a page, loading it now if it was not preloaded. Must be called on the FX thread.
+     */
+    public Parent show(String fxmlFile) throws IOException {
+        CompletableFuture<LoadedView> pending = views.get(fxmlFile);
+        if (pending != null) {
+            try {
+                LoadedView view = pending.join();
+                if (view.controller instanceof RefreshableView) {
+                    ((RefreshableView) view.controller).refresh();
+                }
+                return view.root;
+            } catch (CompletionException e) {
+                System.err.println("Preloading " + fxmlFile + " failed, loading it again: " + e.getCause());
+            }
+        }
+        LoadedView view = load(fxmlFile); // initialize() has just loaded fresh data
+        views.put(fxmlFile, CompletableFuture.completedFuture(view));
+        return view.root;
+    }
+
+    private LoadedView load(String fxmlFile) throws IOException {
+        FXMLLoader loader = ControllerFactory.loader(fxmlFile, services);
+        Parent root = loader.load();
+        return new LoadedView(root, loader.getController());
+    }
+
+    private static final class LoadedView {
+        private final Parent root;
+        private final Object controller;
+
+        private LoadedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.acadia.acadiastudyplanner.controller;
+
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A week calendar: one column per weekday, time running down the page, and each block sized by its
+ * start and end time. Overlapping blocks share their column side by side.
+ * <p>
+ * The grid is built once. {@link #setBlocks} compares the new blocks with the ones on screen and
+ * only adds or removes the difference; block nodes that leave are kept for reuse, so redrawing a
+ * schedule (after a generation, a repair or a reload) rarely creates nodes. Resizing only
+ * repositions the existing nodes in {@link #layoutChildren}.
+ */
+public final class WeekScheduleGrid extends Region {
+
+    private static final double HEADER_HEIGHT = 28;
+    private static final double TIME_GUTTER = 44;
+    private static final double PIXELS_PER_HOUR = 56;
+    private static final double GAP = 3;
+    private static final double MIN_COLUMN_WIDTH = 90;
+    private static final double MIN_BLOCK_HEIGHT = 22;
+    // The visible hours grow to fit blocks outside this range.
+    private static final int DEFAULT_FIRST_HOUR = 8;
+    private static final int DEFAULT_LAST_HOUR = 20;
+
+    private final List<Label> dayHeaders = new ArrayList<>();
+    private final List<Label> hourLabels = new ArrayList<>();
+    private final Map<String, BlockNode> shown = new LinkedHashMap<>();
+    private final Deque<BlockNode> spare = new ArrayDeque<>();
+    private int firstHour = DEFAULT_FIRST_HOUR;
+    private int lastHour = DEFAULT_LAST_HOUR;
+
+    public WeekScheduleGrid() {
+        getStyleClass().add("week-schedule-grid");
+        for (String day : WeekTime.DAYS) {
+            Label header = new Label(day);
+            header.getStyleClass().add("grid-day-header");
+            dayHeaders.add(header);
+        }
+        getChildren().addAll(dayHeaders);
+        updateHourLabels();
+    }
+
+    /** Shows exactly these blocks; blocks that cannot be placed on the week (unknown day or time) are skipped. */
+    public void setBlocks(List<ScheduleBlock> blocks) {
+        Map<String, ScheduleBlock> next = new LinkedHashMap<>();
+        for (ScheduleBlock block : blocks) {
+            if (placement(block) != null) next.put(uniqueKey(next, block), block);
+        }
+
+        Set<Node> leaving = new HashSet<>();
+        for (Iterator<Map.Entry<String, BlockNode>> it = shown.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, BlockNode> entry = it.next();
+            if (!next.containsKey(entry.getKey())) {
+                leaving.add(entry.getValue());
+                spare.push(entry.getValue());
+                it.remove();
+            }
+        }
+        getChildren().removeAll(leaving);
+
+        List<Node> arriving = new ArrayList<>();
+        for (Map.Entry<String, ScheduleBlock> entry : next.entrySet()) {
+            BlockNode node = shown.get(entry.getKey());
+            if (node == null) {
+                node = spare.isEmpty() ? new BlockNode() : spare.pop();
+                shown.put(entry.getKey(), node);
+                arriving.add(node);
+            }
+            node.show(entry.getValue(), placement(entry.getValue()));
+        }
+        getChildren().addAll(arriving);
+        blocksChanged();
+    }
+
+    /** Adds one block, e.g. while a schedule is still streaming in. */
+    public void addBlock(ScheduleBlock block) {
+        int[] placement = placement(block);
+        if (placement == null) return;
+        BlockNode node = spare.isEmpty() ? new BlockNode() : spare.pop();
+        node.show(block, placement);
+        shown.put(uniqueKey(shown, block), node);
+        getChildren().add(node);
+        blocksChanged();
+    }
+
+    public void clear() {
+        setBlocks(List.of());
+    }
+
+    private void blocksChanged() {
+        assignLanes();
+        int first = DEFAULT_FIRST_HOUR;
+        int last = DEFAULT_LAST_HOUR;
+        for (BlockNode node : shown.values()) {
+            first = Math.min(first, node.startOfDay / 60);
+            last = Math.max(last, (node.endOfDay + 59) / 60);
+        }
+        if (first != firstHour || last != lastHour) {
+            firstHour = first;
+            lastHour = last;
+            updateHourLabels();
+        }
+        requestLayout();
+    }
+
+    // Per day, blocks are placed left to right in the first lane that is free at their start; every
+    // block in a run of overlapping blocks then shares that run's lane count, so widths line up.
+    private void assignLanes() {
+        Map<Integer, List<BlockNode>> byDay = new HashMap<>();
+        for (BlockNode node : shown.values()) {
+            byDay.computeIfAbsent(node.day, d -> new ArrayList<>()).add(node);
+        }
+        for (List<BlockNode> day : byDay.values()) {
+            day.sort(Comparator.comparingInt((BlockNode n) -> n.startOfDay).thenComparingInt(n -> n.endOfDay));
+            List<BlockNode> run = new ArrayList<>();
+            List<Integer> laneEnds = new ArrayList<>();
+            int runEnd = Integer.MIN_VALUE;
+            for (BlockNode node : day) {
+                if (node.startOfDay >= runEnd) {
+                    finishRun(run, laneEnds.size());
+                    laneEnds.clear();
+                }
+                int lane = 0;
+                while (lane < laneEnds.size() && laneEnds.get(lane) > node.startOfDay) lane++;
+                if (lane == laneEnds.size()) laneEnds.add(node.endOfDay); else laneEnds.set(lane, node.endOfDay);
+                node.lane = lane;
+                run.add(node);
+                runEnd = Math.max(runEnd, node.endOfDay);
+            }
+            finishRun(run, laneEnds.size());
+        }
+    }
+
+    private static void finishRun(List<BlockNode> run, int lanes) {
+        for (BlockNode node : run) node.lanes = lanes;
+        run.clear();
+    }
+
+    private void updateHourLabels() {
+        int needed = lastHour - firstHour + 1;
+        while (hourLabels.size() < needed) {
+            Label label = new Label();
+            label.getStyleClass().add("grid-day-header");
+            hourLabels.add(label);
+            getChildren().add(label);
+        }
+        while (hourLabels.size() > needed) {
+            getChildren().remove(hourLabels.remove(hourLabels.size() - 1));
+        }
+        for (int i = 0; i < needed; i++) {
+            hourLabels.get(i).setText(String.format("%02d:00", (firstHour + i) % 24));
+        }
+    }
+
+    @Override
+    protected void layoutChildren() {
+        Insets insets = getInsets();
+        double left = insets.getLeft() + TIME_GUTTER;
+        double top = insets.getTop();
+        double columnWidth = Math.max(0, getWidth() - left - insets.getRight()) / dayHeaders.size();
+
+        for (int i = 0; i < dayHeaders.size(); i++) {
+            Label header = dayHeaders.get(i);
+            header.resizeRelocate(left + i * columnWidth, top, columnWidth, HEADER_HEIGHT);
+        }
+        for (int i = 0; i < hourLabels.size(); i++) {
+            Label label = hourLabels.get(i);
+            double height = label.prefHeight(-1);
+            label.resizeRelocate(insets.getLeft(), top + HEADER_HEIGHT + i * PIXELS_PER_HOUR - height / 2, TIME_GUTTER - GAP, height);
+        }
+        for (BlockNode node : shown.values()) {
+            double laneWidth = columnWidth / node.lanes;
+            double y = top + HEADER_HEIGHT + (node.startOfDay - firstHour * 60) * PIXELS_PER_HOUR / 60;
+            double height = Math.max(MIN_BLOCK_HEIGHT, (node.endOfDay - node.startOfDay) * PIXELS_PER_HOUR / 60 - GAP);
+            node.resizeRelocate(left + node.day * columnWidth + node.lane * laneWidth, y, Math.max(0, laneWidth - GAP), height);
+        }
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        Insets insets = getInsets();
+        return insets.getLeft() + TIME_GUTTER + dayHeaders.size() * MIN_COLUMN_WIDTH + insets.getRight();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        Insets insets = getInsets();
+        return insets.getTop() + HEADER_HEIGHT + (lastHour - firstHour) * PIXELS_PER_HOUR + insets.getBottom();
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return computePrefHeight(width);
+    }
+
+    /** @return {day index, start minute of day, end minute of day}, or null if the block cannot be placed */
+    private static int[] placement(ScheduleBlock block) {
+        try {
+            int day = WeekTime.dayIndex(block.getDay());
+            int start = block.getStartMinute() - day * WeekTime.MINUTES_PER_DAY;
+            int end = block.getEndMinute() - day * WeekTime.MINUTES_PER_DAY;
+            if (end <= start) end = WeekTime.MINUTES_PER_DAY; // ends at or after midnight
+            return new int[]{day, start, Math.min(end, WeekTime.MINUTES_PER_DAY)};
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    // Keyed by what is drawn rather than by database row, so a streamed block and the stored row it
+    // becomes share one node. Identical blocks get a counter suffix.
+    private static String uniqueKey(Map<String, ?> taken, ScheduleBlock block) {
+        String key = block.getDay() + '|' + block.getTimeStart() + '|' + block.getTimeEnd() + '|'
+                + block.getSubjectName() + '|' + block.getTaskTitle();
+        String unique = key;
+        for (int n = 2; taken.containsKey(unique); n++) {
+            unique = key + '#' + n;
+        }
+        return unique;
+    }
+
+    private static final class BlockNode extends VBox {
+        private final Label title = new Label();
+        private final Label time = new Label();
+        private int day;
+        private int startOfDay;
+        private int endOfDay;
+        private int lane;
+        private int lanes = 1;
+
+        private BlockNode() {
+            super(-2);
+            setPadding(new Insets(4, 8, 4, 8));
+            getStyleClass().addAll("schedule-item", "green-item");
+            title.getStyleClass().add("item-title");
+            time.getStyleClass().add("item-time");
+            getChildren().addAll(title, time);
+        }
+
+        private void show(ScheduleBlock block, int[] placement) {
+            day = placement[0];
+            startOfDay = placement[1];
+            endOfDay = placement[2];
+            title.setText(block.getSubjectName() != null ? block.getSubjectName() : block.getTaskTitle());
+            time.setText(block.getTimeStart() + " - " + block.getTimeEnd());
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.acadia.acadiastudyplanner.data;
 
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
 import com.acadia.acadiastudyplanner.model.Subject;
 import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.SubjectProgress;
+import com.acadia.acadiastudyplanner.model.WeekTime;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -18,85 +22,125 @@ import java.util.HashMap;
  */
 public class DatabaseManager {
 
-    private static final String DB_URL = "jdbc:sqlite:acadia_study_planner.db";
+    private static final String DB_URL = System.getProperty("acadia.db.url", "jdbc:sqlite:acadia_study_planner.db");
 
-    public static Connection connect() throws SQLException {
+    // Pool sizing: SQLite serialises writers anyway, so a handful of warm connections is plenty.
+    private static final int POOL_SIZE = Integer.getInteger("acadia.db.poolSize", 4);
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final long IDLE_VALIDATION_MILLIS = 30_000;
+
+    // Progress reads come from the trigger-maintained rollup unless -Dacadia.db.progressRollup=false.
+    private static final boolean USE_PROGRESS_ROLLUP = Boolean.parseBoolean(System.getProperty("acadia.db.progressRollup", "true"));
+
+    private static final StorageProfile STORAGE_PROFILE = StorageProfile.fromSystemProperties();
+    private static final ConnectionPool POOL;
+    private static final WalCheckpointer CHECKPOINTER;
+
+    static {
         try {
             Class.forName("org.sqlite.JDBC");
         } catch (ClassNotFoundException e) {
             System.err.println("Error: SQLite JDBC driver not found.");
-            throw new SQLException("SQLite JDBC driver not found.", e);
         }
-        return DriverManager.getConnection(DB_URL);
+        POOL = new ConnectionPool(DB_URL, POOL_SIZE, BORROW_TIMEOUT_MILLIS, IDLE_VALIDATION_MILLIS, STORAGE_PROFILE::apply);
+        CHECKPOINTER = new WalCheckpointer(POOL, STORAGE_PROFILE.getCheckpointIntervalSeconds());
     }
 
-    public static void initializeDatabase() {
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
-
-            // 1. User Table (All names are CamelCase, matching the project convention)
-            String createUsersTable = "CREATE TABLE IF NOT EXISTS User (" +
-                    "UserID INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "Username TEXT NOT NULL UNIQUE," +
-                    "PasswordHash TEXT NOT NULL," +
-                    "DisplayName TEXT," +
-                    "BreakLength INTEGER DEFAULT 15," +
-                    "BreakFrequency INTEGER DEFAULT 60," +
-                    "LearningPreferences TEXT" +
-                    ");";
-            stmt.execute(createUsersTable);
-
-            // 2. Subject Table
-            String createSubjectsTable = "CREATE TABLE IF NOT EXISTS Subject (" +
-                    "SubjectID INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "UserID INTEGER NOT NULL," +
-                    "Name TEXT NOT NULL," +
-                    "Difficulty INTEGER NOT NULL," +
-                    "ExamDate TEXT," +
-                    "FOREIGN KEY (UserID) REFERENCES User(UserID) ON DELETE CASCADE" +
-                    ");";
-            stmt.execute(createSubjectsTable);
-
-            // 3. StudyTask Table (FINAL SCHEMA)
-            String createTasksTable = "CREATE TABLE IF NOT EXISTS StudyTask (" +
-                    "TaskID INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "UserID INTEGER NOT NULL," +
-                    "SubjectID INTEGER," +
-                    "Title TEXT NOT NULL," +
-                    "TaskType TEXT," +
-                    "DurationEstimate TEXT," +
-                    "DeadlineDate TEXT," +
-                    "StartTime TEXT," +
-                    "EndTime TEXT," +
-                    "DayOfWeek TEXT," +
-                    "Status TEXT NOT NULL DEFAULT 'Pending'," +
-                    "FOREIGN KEY (UserID) REFERENCES User(UserID) ON DELETE CASCADE," +
-                    "FOREIGN KEY (SubjectID) REFERENCES Subject(SubjectID) ON DELETE SET NULL" +
-                    ");";
-            stmt.execute(createTasksTable);
-
-            // 4. Availability Table
-            String createAvailabilityTable = "CREATE TABLE IF NOT EXISTS Availability (" +
-                    "SlotID INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "UserID INTEGER NOT NULL," +
-                    "DayOfWeek TEXT NOT NULL," +
-                    "StartTime TEXT NOT NULL," +
-                    "EndTime TEXT NOT NULL," +
-                    "FOREIGN KEY (UserID) REFERENCES User(UserID) ON DELETE CASCADE" +
-                    ");";
-            stmt.execute(createAvailabilityTable);
-
-            System.out.println("Database initialization complete.");
-
-        } catch (SQLException e) {
-            System.err.println("Database initialization failed: " + e.getMessage());
+    /**
+     * Borrows a pooled connection. Closing it returns it to the pool rather than closing the database file.
+     */
+    public static Connection connect() throws SQLException {
+        return POOL.borrow();
+    }
+
+    /**
+     * Truncates the WAL and closes all pooled connections. Called once from {@code Main.stop()}.
+     */
+    public static void shutdown() {
+        CHECKPOINTER.stop();
+        POOL.shutdown();
+    }
+
+    /**
+     * Opens the rest of the pool's connections ahead of first use, so the first screens after startup
+     * never pay for opening a database file and applying the storage PRAGMAs.
+     */
+    public static void warmUp() throws SQLException {
+        List<Connection> opened = new ArrayList<>();
+        try {
+            while (opened.size() < POOL_SIZE && POOL.idleCount() + opened.size() < POOL_SIZE) {
+                opened.add(connect());
+            }
+        } finally {
+            for (Connection conn : opened) {
+                conn.close(); // back to the pool, still open
+            }
+        }
+    }
+
+    public static StorageProfile getStorageProfile() {
+        return STORAGE_PROFILE;
+    }
+
+    /** Unit of work executed on a single connection inside one transaction. */
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs the work in a single transaction: everything commits together or nothing does.
+     */
+    private static <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Brings the schema up to date through the versioned migrations in {@link Migrations},
+     * then starts background maintenance.
+     *
+     * @throws SQLException if a migration fails; the database stays at the last good version and
+     *                      no maintenance is started, so callers must not go on to use it.
+     */
+    public static void initializeDatabase() throws SQLException {
+        try (Connection conn = connect()) {
+            migrateSchema(conn, Migrations.all());
+        }
+
+        CHECKPOINTER.start();
+        System.out.println("Database initialization complete. Storage profile: " + STORAGE_PROFILE);
+
+        if (Boolean.getBoolean("acadia.db.auditPlans")) {
+            QueryPlanAudit.run().forEach(finding -> System.err.println("Query plan warning: " + finding));
+        }
+    }
+
+    static void migrateSchema(Connection conn, List<Migration> migrations) throws SQLException {
+        int fromVersion = SchemaMigrator.currentVersion(conn);
+        List<SchemaMigrator.Result> applied = SchemaMigrator.migrate(conn, migrations);
+        applied.forEach(System.out::println);
+        if (!applied.isEmpty()) {
+            System.out.println("Schema migrated from v" + fromVersion + " to v" + applied.get(applied.size() - 1).getMigration().getVersion() + ".");
         }
     }
 
     // --- User Persistence Methods (Standardized to use proper casing) ---
+    static final String SQL_USER_EXISTS = "SELECT COUNT(*) FROM User WHERE Username = ?";
+
     public static boolean userExists(String username) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM User WHERE Username = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_USER_EXISTS)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             return rs.getInt(1) > 0;
@@ -113,9 +157,10 @@ public class DatabaseManager {
         }
     }
 
+    static final String SQL_VALIDATE_USER = "SELECT UserID, PasswordHash FROM User WHERE Username = ?";
+
     public static int validateAndGetUserID(String username, String password) throws SQLException {
-        String sql = "SELECT UserID, PasswordHash FROM User WHERE Username = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_VALIDATE_USER)) {
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -128,9 +173,24 @@ public class DatabaseManager {
         }
     }
 
+    static final String SQL_LOAD_USER_IDS = "SELECT UserID FROM User ORDER BY UserID";
+
+    /** IDs of every registered user, for headless batch runs. */
+    public static List<Integer> loadUserIds() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_USER_IDS);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt("UserID"));
+            }
+        }
+        return ids;
+    }
+
+    static final String SQL_GET_DISPLAY_NAME = "SELECT DisplayName FROM User WHERE UserID = ?";
+
     public static String getDisplayName(int userId) throws SQLException {
-        String sql = "SELECT DisplayName FROM User WHERE UserID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_GET_DISPLAY_NAME)) {
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -159,27 +219,30 @@ public class DatabaseManager {
         }
     }
 
+    static final String SQL_UPDATE_SUBJECT = "UPDATE Subject SET Name = ?, Difficulty = ?, ExamDate = ? WHERE SubjectID = ?";
+
     public static void updateSubject(Subject subject) throws SQLException {
-        String sql = "UPDATE Subject SET Name = ?, Difficulty = ?, ExamDate = ? WHERE SubjectID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE_SUBJECT)) {
             pstmt.setString(1, subject.getName()); pstmt.setInt(2, subject.getDifficulty());
             pstmt.setString(3, subject.getExamDate()); pstmt.setInt(4, subject.getId());
             pstmt.executeUpdate();
         }
     }
 
+    static final String SQL_DELETE_SUBJECT = "DELETE FROM Subject WHERE SubjectID = ?";
+
     public static void deleteSubject(int subjectId) throws SQLException {
-        String sql = "DELETE FROM Subject WHERE SubjectID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_SUBJECT)) {
             pstmt.setInt(1, subjectId);
             pstmt.executeUpdate();
         }
     }
 
+    static final String SQL_LOAD_SUBJECTS = "SELECT SubjectID, Name, Difficulty, ExamDate FROM Subject WHERE UserID = ?";
+
     public static List<Subject> loadSubjects(int userId) throws SQLException {
         List<Subject> subjects = new ArrayList<>();
-        String sql = "SELECT SubjectID, Name, Difficulty, ExamDate FROM Subject WHERE UserID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_SUBJECTS)) {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -192,18 +255,20 @@ public class DatabaseManager {
     }
 
     // --- User Preferences & Availability Methods (Standardized) ---
+    static final String SQL_SAVE_PREFERENCES = "UPDATE User SET BreakLength = ?, BreakFrequency = ?, LearningPreferences = ? WHERE UserID = ?";
+
     public static void saveUserPreferences(int userId, int breakLength, int breakFrequency, String preferences) throws SQLException {
-        String sql = "UPDATE User SET BreakLength = ?, BreakFrequency = ?, LearningPreferences = ? WHERE UserID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_SAVE_PREFERENCES)) {
             pstmt.setInt(1, breakLength); pstmt.setInt(2, breakFrequency); pstmt.setString(3, preferences); pstmt.setInt(4, userId);
             pstmt.executeUpdate();
         }
     }
 
+    static final String SQL_LOAD_PREFERENCES = "SELECT BreakLength, BreakFrequency, LearningPreferences, DisplayName FROM User WHERE UserID = ?";
+
     public static Map<String, Object> loadUserPreferences(int userId) throws SQLException {
         Map<String, Object> prefs = new HashMap<>();
-        String sql = "SELECT BreakLength, BreakFrequency, LearningPreferences, DisplayName FROM User WHERE UserID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_PREFERENCES)) {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -217,29 +282,28 @@ public class DatabaseManager {
         return prefs;
     }
 
-    public static List<Map<String, Object>> loadAvailableSlots(int userId) throws SQLException {
-        List<Map<String, Object>> slots = new ArrayList<>();
-        String sql = "SELECT SlotID, DayOfWeek, StartTime, EndTime FROM Availability WHERE UserID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    static final String SQL_LOAD_SLOTS = "SELECT SlotID, StartMinute, EndMinute FROM Availability WHERE UserID = ? ORDER BY StartMinute";
+
+    /**
+     * Loads the user's weekly availability, ordered by start time.
+     */
+    public static List<AvailabilitySlot> loadAvailableSlots(int userId) throws SQLException {
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_SLOTS)) {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, Object> slot = new HashMap<>();
-                    slot.put("SlotID", rs.getInt("SlotID"));
-                    slot.put("DayOfWeek", rs.getString("DayOfWeek"));
-                    slot.put("StartTime", rs.getString("StartTime"));
-                    slot.put("EndTime", rs.getString("EndTime"));
-                    slots.add(slot);
+                    slots.add(new AvailabilitySlot(rs.getInt("SlotID"), rs.getInt("StartMinute"), rs.getInt("EndMinute")));
                 }
             }
         }
         return slots;
     }
 
-    public static int addAvailableSlot(int userId, String dayOfWeek, String startTime, String endTime) throws SQLException {
-        String sql = "INSERT INTO Availability (UserID, DayOfWeek, StartTime, EndTime) VALUES (?, ?, ?, ?)";
+    public static int addAvailableSlot(int userId, int startMinute, int endMinute) throws SQLException {
+        String sql = "INSERT INTO Availability (UserID, StartMinute, EndMinute) VALUES (?, ?, ?)";
         try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, userId); pstmt.setString(2, dayOfWeek); pstmt.setString(3, startTime); pstmt.setString(4, endTime);
+            pstmt.setInt(1, userId); pstmt.setInt(2, startMinute); pstmt.setInt(3, endMinute);
             pstmt.executeUpdate();
             try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
                 return rs.next() ? rs.getInt(1) : -1;
@@ -247,25 +311,54 @@ public class DatabaseManager {
         }
     }
 
+    static final String SQL_DELETE_SLOT = "DELETE FROM Availability WHERE SlotID = ?";
+
     public static void deleteAvailableSlot(int slotId) throws SQLException {
-        String sql = "DELETE FROM Availability WHERE SlotID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_SLOT)) {
             pstmt.setInt(1, slotId);
             pstmt.executeUpdate();
         }
     }
 
+    static final String SQL_DELETE_ALL_SLOTS = "DELETE FROM Availability WHERE UserID = ?";
+
     public static void deleteAllAvailableSlots(int userId) throws SQLException {
-        String sql = "DELETE FROM Availability WHERE UserID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_ALL_SLOTS)) {
             pstmt.setInt(1, userId);
             pstmt.executeUpdate();
         }
     }
 
+    /**
+     * Replaces all of the user's slots in one transaction.
+     *
+     * @return the stored slots, carrying their new SlotIDs
+     */
+    public static List<AvailabilitySlot> replaceAvailableSlots(int userId, List<AvailabilitySlot> slots) throws SQLException {
+        return inTransaction(conn -> {
+            try (PreparedStatement delete = conn.prepareStatement(SQL_DELETE_ALL_SLOTS)) {
+                delete.setInt(1, userId);
+                delete.executeUpdate();
+            }
+            List<AvailabilitySlot> stored = new ArrayList<>(slots.size());
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO Availability (UserID, StartMinute, EndMinute) VALUES (?, ?, ?)");
+                 Statement lastId = conn.createStatement()) {
+                for (AvailabilitySlot slot : slots) {
+                    insert.setInt(1, userId); insert.setInt(2, slot.getStartMinute()); insert.setInt(3, slot.getEndMinute());
+                    insert.executeUpdate();
+                    try (ResultSet rs = lastId.executeQuery("SELECT last_insert_rowid()")) {
+                        stored.add(new AvailabilitySlot(rs.next() ? rs.getInt(1) : -1, slot.getStartMinute(), slot.getEndMinute()));
+                    }
+                }
+            }
+            return stored;
+        });
+    }
+
+    static final String SQL_UPDATE_DISPLAY_NAME = "UPDATE User SET DisplayName = ? WHERE UserID = ?";
+
     public static void updateDisplayName(int userId, String newName) throws SQLException {
-        String sql = "UPDATE User SET DisplayName = ? WHERE UserID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE_DISPLAY_NAME)) {
             pstmt.setString(1, newName);
             pstmt.setInt(2, userId);
             pstmt.executeUpdate();
@@ -275,7 +368,7 @@ public class DatabaseManager {
     // --- Task Persistence Methods (Corrected to load all 10 fields) ---
 
     public static int insertAcademicTask(StudyTask task, int userId) throws SQLException {
-        String sql = "INSERT INTO StudyTask (UserID, SubjectID, Title, TaskType, DurationEstimate, DeadlineDate, Status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO StudyTask (UserID, SubjectID, Title, TaskType, DurationMinutes, DeadlineDay, Status) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -286,8 +379,8 @@ public class DatabaseManager {
             if (task.getSubjectId() == -1) { pstmt.setNull(2, java.sql.Types.INTEGER); } else { pstmt.setInt(2, task.getSubjectId()); }
             pstmt.setString(3, task.getTitle());
             pstmt.setString(4, task.getTaskType());
-            pstmt.setString(5, task.getDurationEstimate());
-            pstmt.setString(6, task.getDeadlineDate());
+            setIntOrNull(pstmt, 5, task.getDurationMinutes());
+            setIntOrNull(pstmt, 6, task.getDeadlineDay());
             pstmt.setString(7, task.getStatus());
 
             int affectedRows = pstmt.executeUpdate();
@@ -307,54 +400,137 @@ public class DatabaseManager {
         }
     }
 
+    // SELECT T.* ensures all columns (TaskID, UserID, SubjectID, Title, TaskType, DurationMinutes, DeadlineDay, StartMinute, EndMinute, Status) are selected
+    static final String SQL_LOAD_TASKS = "SELECT T.*, S.Name AS SubjectName " +
+            "FROM StudyTask T LEFT JOIN Subject S ON T.SubjectID = S.SubjectID " +
+            "WHERE T.UserID = ?";
+
     /**
-     * Loads all tasks for a user, ensuring all 10 fields are loaded for the StudyTask constructor.
+     * Loads all tasks for a user, ensuring all fields are loaded for the StudyTask constructor.
      */
     public static List<StudyTask> loadTasksForProgress(int userId) throws SQLException {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_TASKS)) {
+            pstmt.setInt(1, userId);
+            return readTasks(pstmt);
+        }
+    }
+
+    // Tasks without a deadline sort after every dated one. Migration v6 indexes this exact expression
+    // after (UserID, Status), so the ordered reads below walk the index instead of sorting.
+    static final String TASK_DEADLINE_ORDER = "IFNULL(T.DeadlineDay, 2147483647)";
+    private static final int NO_DEADLINE_SORT_KEY = Integer.MAX_VALUE;
+
+    static final String SQL_LOAD_TASKS_BY_STATUS = "SELECT T.*, S.Name AS SubjectName " +
+            "FROM StudyTask T LEFT JOIN Subject S ON T.SubjectID = S.SubjectID " +
+            "WHERE T.UserID = ? AND T.Status = ? " +
+            "ORDER BY " + TASK_DEADLINE_ORDER + ", T.TaskID";
+
+    // Keyset pagination: resumes after the (deadline, TaskID) of the previous page's last row. Spelled
+    // out rather than as a row-value comparison because SQLite only seeks the index on the ">=" form.
+    static final String SQL_LOAD_TASKS_PAGE = "SELECT T.*, S.Name AS SubjectName " +
+            "FROM StudyTask T LEFT JOIN Subject S ON T.SubjectID = S.SubjectID " +
+            "WHERE T.UserID = ? AND T.Status = ? " +
+            "AND " + TASK_DEADLINE_ORDER + " >= ? AND (" + TASK_DEADLINE_ORDER + " > ? OR T.TaskID > ?) " +
+            "ORDER BY " + TASK_DEADLINE_ORDER + ", T.TaskID LIMIT ?";
+
+    /** All of a user's tasks with the given status, earliest deadline first (undated last). */
+    public static List<StudyTask> loadTasksByStatus(int userId, String status) throws SQLException {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_TASKS_BY_STATUS)) {
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, status);
+            return readTasks(pstmt);
+        }
+    }
+
+    /**
+     * One page of {@link #loadTasksByStatus} in the same order.
+     *
+     * @param after the last task of the previous page, or null for the first page
+     * @return at most {@code limit} tasks; fewer means there are no more
+     */
+    public static List<StudyTask> loadTasksPage(int userId, String status, StudyTask after, int limit) throws SQLException {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_TASKS_PAGE)) {
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, status);
+            int afterDeadline = after == null ? Integer.MIN_VALUE : deadlineSortKey(after);
+            pstmt.setInt(3, afterDeadline);
+            pstmt.setInt(4, afterDeadline);
+            pstmt.setInt(5, after == null ? 0 : after.getId());
+            pstmt.setInt(6, limit);
+            return readTasks(pstmt);
+        }
+    }
+
+    private static int deadlineSortKey(StudyTask task) {
+        return task.getDeadlineDay() == WeekTime.UNSET ? NO_DEADLINE_SORT_KEY : task.getDeadlineDay();
+    }
+
+    private static List<StudyTask> readTasks(PreparedStatement pstmt) throws SQLException {
         List<StudyTask> tasks = new ArrayList<>();
-        // SELECT T.* ensures all columns (TaskID, UserID, Title, TaskType, DurationEstimate, DeadlineDate, StartTime, EndTime, DayOfWeek, Status) are selected
-        String sql = "SELECT T.*, S.Name AS SubjectName " +
-                "FROM StudyTask T LEFT JOIN Subject S ON T.SubjectID = S.SubjectID " +
-                "WHERE T.UserID = ?";
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                StudyTask task = new StudyTask(
+                        rs.getInt("TaskID"),
+                        rs.getInt("SubjectID"),
+                        rs.getString("Title"),
+                        rs.getString("TaskType"),
+                        getIntOrUnset(rs, "DurationMinutes"),
+                        getIntOrUnset(rs, "DeadlineDay"),
+                        getIntOrUnset(rs, "StartMinute"),
+                        getIntOrUnset(rs, "EndMinute"),
+                        rs.getString("Status")
+                );
+                String subjectName = rs.getString("SubjectName");
+                if (subjectName != null) {
+                    task.setSubjectName(subjectName);
+                }
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    // Progress per subject. Subjects are grouped by name, and tasks without one (or whose subject was
+    // deleted) fall under "General". Scheduled rows are blocks of a generated plan, not tasks.
+    static final String SQL_PROGRESS_ROLLUP = "SELECT IFNULL(S.Name, 'General') AS SubjectName, " +
+            "SUM(P.TaskCount) AS Total, SUM(CASE WHEN P.Status = 'Completed' THEN P.TaskCount ELSE 0 END) AS Completed " +
+            "FROM SubjectProgress P LEFT JOIN Subject S ON P.SubjectID = S.SubjectID " +
+            "WHERE P.UserID = ? GROUP BY SubjectName ORDER BY SubjectName";
+
+    static final String SQL_PROGRESS_GROUP_BY = "SELECT IFNULL(S.Name, 'General') AS SubjectName, " +
+            "COUNT(*) AS Total, SUM(CASE WHEN T.Status = 'Completed' THEN 1 ELSE 0 END) AS Completed " +
+            "FROM StudyTask T LEFT JOIN Subject S ON T.SubjectID = S.SubjectID " +
+            "WHERE T.UserID = ? AND T.Status <> 'Scheduled' GROUP BY SubjectName ORDER BY SubjectName";
 
+    /**
+     * Task counts per subject, read from the SubjectProgress rollup that triggers maintain (migration
+     * v7), so the cost grows with the number of subjects rather than with every task ever created.
+     * With -Dacadia.db.progressRollup=false the same figures are aggregated from StudyTask instead.
+     */
+    public static List<SubjectProgress> loadSubjectProgress(int userId) throws SQLException {
+        List<SubjectProgress> progress = new ArrayList<>();
+        String sql = USE_PROGRESS_ROLLUP ? SQL_PROGRESS_ROLLUP : SQL_PROGRESS_GROUP_BY;
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    StudyTask task = new StudyTask(
-                            rs.getInt("TaskID"),
-                            rs.getInt("SubjectID"),
-                            rs.getString("Title"),
-                            rs.getString("TaskType"),
-                            rs.getString("DurationEstimate"),
-                            rs.getString("DeadlineDate"),
-                            rs.getString("StartTime"),
-                            rs.getString("EndTime"),
-                            rs.getString("DayOfWeek"),
-                            rs.getString("Status")
-                    );
-                    String subjectName = rs.getString("SubjectName");
-                    if (subjectName != null) {
-                        task.setSubjectName(subjectName);
-                    }
-                    tasks.add(task);
+                    progress.add(new SubjectProgress(rs.getString("SubjectName"), rs.getInt("Completed"), rs.getInt("Total")));
                 }
             }
         }
-        return tasks;
+        return progress;
     }
 
+    static final String SQL_UPDATE_TASK_STATUS = "UPDATE StudyTask SET Status = ? WHERE TaskID = ?";
+
     public static void updateTaskStatus(int taskId, String newStatus) throws SQLException {
-        String sql = "UPDATE StudyTask SET Status = ? WHERE TaskID = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE_TASK_STATUS)) {
             pstmt.setString(1, newStatus); pstmt.setInt(2, taskId); pstmt.executeUpdate();
         }
     }
 
-    public static void saveScheduledTask(int userId, int subjectId, String title, String day, String start, String end) throws SQLException {
-        String sql = "INSERT INTO StudyTask (UserID, SubjectID, Title, StartTime, EndTime, DayOfWeek, Status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    public static void saveScheduledTask(int userId, int subjectId, String title, int startMinute, int endMinute) throws SQLException {
+        String sql = "INSERT INTO StudyTask (UserID, SubjectID, Title, StartMinute, EndMinute, Status) VALUES (?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -362,20 +538,242 @@ public class DatabaseManager {
             pstmt.setInt(1, userId);
             if (subjectId == -1) { pstmt.setNull(2, java.sql.Types.INTEGER); } else { pstmt.setInt(2, subjectId); }
             pstmt.setString(3, title);
-            pstmt.setString(4, start);
-            pstmt.setString(5, end);
-            pstmt.setString(6, day);
-            pstmt.setString(7, "Scheduled");
+            pstmt.setInt(4, startMinute);
+            pstmt.setInt(5, endMinute);
+            pstmt.setString(6, "Scheduled");
 
             pstmt.executeUpdate();
         }
     }
 
+    static final String SQL_CLEAR_SCHEDULED = "DELETE FROM StudyTask WHERE UserID = ? AND Status = 'Scheduled'";
+
     public static void clearScheduledTasks(int userId) throws SQLException {
-        String sql = "DELETE FROM StudyTask WHERE UserID = ? AND Status = 'Scheduled'";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_CLEAR_SCHEDULED)) {
             pstmt.setInt(1, userId);
             pstmt.executeUpdate();
         }
     }
-}
\ No newline at end of file
+
+    // Undated blocks always belong to the current plan, so they are cleared regardless of the cut-off.
+    static final String SQL_CLEAR_SCHEDULED_FROM = "DELETE FROM StudyTask WHERE UserID = ? AND Status = 'Scheduled' " +
+            "AND (ScheduledDay IS NULL OR ScheduledDay >= ?)";
+
+    /**
+     * Replaces the schedule from {@code fromDay} (epoch-day) onwards, leaving earlier dated blocks as history.
+     */
+    public static void replaceScheduleFrom(int userId, int fromDay, List<ScheduleBlock> blocks) throws SQLException {
+        inTransaction(conn -> {
+            try (PreparedStatement delete = conn.prepareStatement(SQL_CLEAR_SCHEDULED_FROM)) {
+                delete.setInt(1, userId);
+                delete.setInt(2, fromDay);
+                delete.executeUpdate();
+            }
+            insertScheduleBlocks(conn, userId, blocks);
+            return null;
+        });
+    }
+
+    /**
+     * Batch form of {@link #replaceScheduleFrom} for many users: all of them are written in one
+     * transaction, so a bulk run pays one commit per batch instead of one per user.
+     */
+    public static void replaceSchedulesFrom(int fromDay, Map<Integer, List<ScheduleBlock>> schedules) throws SQLException {
+        if (schedules.isEmpty()) return;
+        inTransaction(conn -> {
+            try (PreparedStatement delete = conn.prepareStatement(SQL_CLEAR_SCHEDULED_FROM)) {
+                for (int userId : schedules.keySet()) {
+                    delete.setInt(1, userId);
+                    delete.setInt(2, fromDay);
+                    delete.addBatch();
+                }
+                delete.executeBatch();
+            }
+            for (Map.Entry<Integer, List<ScheduleBlock>> schedule : schedules.entrySet()) {
+                insertScheduleBlocks(conn, schedule.getKey(), schedule.getValue());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Atomically replaces the user's scheduled blocks: the delete and every insert share one
+     * transaction (one fsync), and a failure leaves the previous schedule untouched.
+     */
+    public static void replaceSchedule(int userId, List<ScheduleBlock> blocks) throws SQLException {
+        inTransaction(conn -> {
+            try (PreparedStatement delete = conn.prepareStatement(SQL_CLEAR_SCHEDULED)) {
+                delete.setInt(1, userId);
+                delete.executeUpdate();
+            }
+            insertScheduleBlocks(conn, userId, blocks);
+            return null;
+        });
+    }
+
+    static final String SQL_LOAD_SCHEDULED = "SELECT T.TaskID, T.SourceTaskID, T.Title, T.StartMinute, T.EndMinute, T.ScheduledDay, " +
+            "S.Name AS SubjectName FROM StudyTask T LEFT JOIN Subject S ON T.SubjectID = S.SubjectID " +
+            "WHERE T.UserID = ? AND T.Status = 'Scheduled' ORDER BY T.ScheduledDay, T.StartMinute";
+
+    /**
+     * Loads the user's stored schedule, with each block's row and source task IDs.
+     */
+    public static List<ScheduleBlock> loadScheduledBlocks(int userId) throws SQLException {
+        List<ScheduleBlock> blocks = new ArrayList<>();
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_LOAD_SCHEDULED)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int start = getIntOrUnset(rs, "StartMinute");
+                    int end = getIntOrUnset(rs, "EndMinute");
+                    if (start == WeekTime.UNSET || end == WeekTime.UNSET) continue;
+                    blocks.add(ScheduleBlock.stored(rs.getInt("TaskID"), getIntOrUnset(rs, "SourceTaskID"),
+                            rs.getString("SubjectName"), rs.getString("Title"), start, end, getIntOrUnset(rs, "ScheduledDay")));
+                }
+            }
+        }
+        return blocks;
+    }
+
+    static final String SQL_DELETE_SCHEDULED_BLOCK = "DELETE FROM StudyTask WHERE TaskID = ? AND UserID = ? AND Status = 'Scheduled'";
+
+    /**
+     * Applies an incremental schedule change in one transaction: only the listed rows are deleted and
+     * only the new blocks are inserted; the rest of the stored schedule is left untouched.
+     */
+    public static void applyScheduleDelta(int userId, List<Integer> removedRowIds, List<ScheduleBlock> added) throws SQLException {
+        inTransaction(conn -> {
+            if (!removedRowIds.isEmpty()) {
+                try (PreparedStatement delete = conn.prepareStatement(SQL_DELETE_SCHEDULED_BLOCK)) {
+                    for (int rowId : removedRowIds) {
+                        delete.setInt(1, rowId);
+                        delete.setInt(2, userId);
+                        delete.addBatch();
+                    }
+                    delete.executeBatch();
+                }
+            }
+            insertScheduleBlocks(conn, userId, added);
+            return null;
+        });
+    }
+
+    static final String SQL_SUBJECT_IDS_BY_NAME = "SELECT SubjectID, Name FROM Subject WHERE UserID = ?";
+    static final String SQL_PENDING_IDS_BY_TITLE = "SELECT TaskID, Title FROM StudyTask WHERE UserID = ? AND Status = 'Pending'";
+
+    // Batched insert of scheduled blocks; subject names from the block are resolved to the user's SubjectIDs,
+    // and blocks without a source task (e.g. from the AI) are matched to a pending task by title.
+    private static void insertScheduleBlocks(Connection conn, int userId, List<ScheduleBlock> blocks) throws SQLException {
+        if (blocks.isEmpty()) return;
+
+        Map<String, Integer> subjectIds = idsByName(conn, SQL_SUBJECT_IDS_BY_NAME, userId, "SubjectID", "Name");
+        Map<String, Integer> taskIds = blocks.stream().anyMatch(b -> b.getTaskId() == WeekTime.UNSET)
+                ? idsByName(conn, SQL_PENDING_IDS_BY_TITLE, userId, "TaskID", "Title")
+                : Map.of();
+
+        String sql = "INSERT INTO StudyTask (UserID, SubjectID, Title, StartMinute, EndMinute, Status, SourceTaskID, ScheduledDay) " +
+                "VALUES (?, ?, ?, ?, ?, 'Scheduled', ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (ScheduleBlock block : blocks) {
+                Integer subjectId = lookupName(subjectIds, block.getSubjectName());
+                Integer taskId = block.getTaskId() != WeekTime.UNSET ? Integer.valueOf(block.getTaskId()) : lookupName(taskIds, block.getTaskTitle());
+                pstmt.setInt(1, userId);
+                if (subjectId == null) { pstmt.setNull(2, java.sql.Types.INTEGER); } else { pstmt.setInt(2, subjectId); }
+                pstmt.setString(3, block.getTaskTitle());
+                pstmt.setInt(4, block.getStartMinute());
+                pstmt.setInt(5, block.getEndMinute());
+                if (taskId == null) { pstmt.setNull(6, java.sql.Types.INTEGER); } else { pstmt.setInt(6, taskId); }
+                setIntOrNull(pstmt, 7, block.getScheduledDay());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // Case-insensitive name -> ID map for the user; the first (lowest) ID wins on duplicates.
+    private static Map<String, Integer> idsByName(Connection conn, String sql, int userId, String idColumn, String nameColumn) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.putIfAbsent(rs.getString(nameColumn).trim().toLowerCase(Locale.ROOT), rs.getInt(idColumn));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Integer lookupName(Map<String, Integer> ids, String name) {
+        return name == null ? null : ids.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // --- Schedule Response Cache (timestamps are epoch millis) ---
+
+    static final String SQL_CACHE_GET = "SELECT Response FROM ScheduleCache WHERE CacheKey = ? AND CreatedAt >= ?";
+    static final String SQL_CACHE_TOUCH = "UPDATE ScheduleCache SET LastAccessed = ? WHERE CacheKey = ?";
+    static final String SQL_CACHE_PUT = "INSERT OR REPLACE INTO ScheduleCache (CacheKey, UserID, Response, CreatedAt, LastAccessed) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    static final String SQL_CACHE_EXPIRE = "DELETE FROM ScheduleCache WHERE CreatedAt < ?";
+    // Keeps the most recently used entries; the subquery walks the LastAccessed index newest first.
+    static final String SQL_CACHE_EVICT = "DELETE FROM ScheduleCache WHERE CacheKey IN (" +
+            "SELECT CacheKey FROM ScheduleCache ORDER BY LastAccessed DESC LIMIT -1 OFFSET ?)";
+
+    /**
+     * @return the cached response for the key if it was stored at or after {@code notBefore}, else null.
+     */
+    public static String getCachedScheduleResponse(String cacheKey, long notBefore, long now) throws SQLException {
+        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(SQL_CACHE_GET)) {
+            pstmt.setString(1, cacheKey);
+            pstmt.setLong(2, notBefore);
+            String response;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) return null;
+                response = rs.getString("Response");
+            }
+            try (PreparedStatement touch = conn.prepareStatement(SQL_CACHE_TOUCH)) {
+                touch.setLong(1, now);
+                touch.setString(2, cacheKey);
+                touch.executeUpdate();
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Stores a response, then evicts expired entries and the least recently used ones beyond {@code maxEntries}.
+     */
+    public static void putCachedScheduleResponse(String cacheKey, int userId, String response, long now,
+                                                 long expireBefore, int maxEntries) throws SQLException {
+        inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(SQL_CACHE_PUT)) {
+                pstmt.setString(1, cacheKey);
+                pstmt.setInt(2, userId);
+                pstmt.setString(3, response);
+                pstmt.setLong(4, now);
+                pstmt.setLong(5, now);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement expire = conn.prepareStatement(SQL_CACHE_EXPIRE)) {
+                expire.setLong(1, expireBefore);
+                expire.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(SQL_CACHE_EVICT)) {
+                pstmt.setInt(1, maxEntries);
+                pstmt.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    // --- Integer column helpers: SQL NULL <-> WeekTime.UNSET ---
+
+    private static int getIntOrUnset(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? WeekTime.UNSET : value;
+    }
+
+    private static void setIntOrNull(PreparedStatement pstmt, int index, int value) throws SQLException {
+        if (value == WeekTime.UNSET) { pstmt.setNull(index, java.sql.Types.INTEGER); } else { pstmt.setInt(index, value); }
+    }
+}
@@ -0,0 +1,280 @@
+package com.acadia.acadiastudyplanner.data;
+
+import com.acadia.acadiastudyplanner.model.WeekTime;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * The ordered schema history of acadia_study_planner.db. Append new migrations to the end of
+ * {@link #all()}; never edit one that has already shipped.
+ */
+final class Migrations {
+
+    private Migrations() {}
+
+    static List<Migration> all() {
+        return List.of(
+                baselineSchema(),
+                integerTimeEncoding(),
+                scheduleResponseCache(),
+                scheduleSourceTask(),
+                scheduledDays(),
+                taskDeadlineOrder(),
+                subjectProgressRollup(),
+                scheduleCacheExpiry()
+        );
+    }
+
+    // v1: the original tables plus the per-user index set. Everything is IF NOT EXISTS so that
+    // databases created before versioning (user_version 0) are adopted without changes.
+    private static Migration baselineSchema() {
+        return Migration.of(1, "baseline tables and per-user indexes",
+                // 1. User Table (All names are CamelCase, matching the project convention)
+                "CREATE TABLE IF NOT EXISTS User (" +
+                        "UserID INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "Username TEXT NOT NULL UNIQUE," +
+                        "PasswordHash TEXT NOT NULL," +
+                        "DisplayName TEXT," +
+                        "BreakLength INTEGER DEFAULT 15," +
+                        "BreakFrequency INTEGER DEFAULT 60," +
+                        "LearningPreferences TEXT" +
+                        ");",
+
+                // 2. Subject Table
+                "CREATE TABLE IF NOT EXISTS Subject (" +
+                        "SubjectID INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "UserID INTEGER NOT NULL," +
+                        "Name TEXT NOT NULL," +
+                        "Difficulty INTEGER NOT NULL," +
+                        "ExamDate TEXT," +
+                        "FOREIGN KEY (UserID) REFERENCES User(UserID) ON DELETE CASCADE" +
+                        ");",
+
+                // 3. StudyTask Table
+                "CREATE TABLE IF NOT EXISTS StudyTask (" +
+                        "TaskID INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "UserID INTEGER NOT NULL," +
+                        "SubjectID INTEGER," +
+                        "Title TEXT NOT NULL," +
+                        "TaskType TEXT," +
+                        "DurationEstimate TEXT," +
+                        "DeadlineDate TEXT," +
+                        "StartTime TEXT," +
+                        "EndTime TEXT," +
+                        "DayOfWeek TEXT," +
+                        "Status TEXT NOT NULL DEFAULT 'Pending'," +
+                        "FOREIGN KEY (UserID) REFERENCES User(UserID) ON DELETE CASCADE," +
+                        "FOREIGN KEY (SubjectID) REFERENCES Subject(SubjectID) ON DELETE SET NULL" +
+                        ");",
+
+                // 4. Availability Table
+                "CREATE TABLE IF NOT EXISTS Availability (" +
+                        "SlotID INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "UserID INTEGER NOT NULL," +
+                        "DayOfWeek TEXT NOT NULL," +
+                        "StartTime TEXT NOT NULL," +
+                        "EndTime TEXT NOT NULL," +
+                        "FOREIGN KEY (UserID) REFERENCES User(UserID) ON DELETE CASCADE" +
+                        ");",
+
+                // 5. Per-user secondary indexes for the hot queries
+                "CREATE INDEX IF NOT EXISTS idx_StudyTask_User_Status ON StudyTask(UserID, Status)",
+                "CREATE INDEX IF NOT EXISTS idx_Subject_User ON Subject(UserID)",
+                "CREATE INDEX IF NOT EXISTS idx_Availability_User_Day ON Availability(UserID, DayOfWeek)"
+        );
+    }
+
+    // v2: replace the TEXT time columns with compact integers (minute-of-week, epoch-day, minutes).
+    private static Migration integerTimeEncoding() {
+        return new Migration(2, "integer time encoding for tasks and availability", conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE StudyTask ADD COLUMN DurationMinutes INTEGER");
+                stmt.execute("ALTER TABLE StudyTask ADD COLUMN DeadlineDay INTEGER");
+                stmt.execute("ALTER TABLE StudyTask ADD COLUMN StartMinute INTEGER");
+                stmt.execute("ALTER TABLE StudyTask ADD COLUMN EndMinute INTEGER");
+                stmt.execute("ALTER TABLE Availability ADD COLUMN StartMinute INTEGER NOT NULL DEFAULT 0");
+                stmt.execute("ALTER TABLE Availability ADD COLUMN EndMinute INTEGER NOT NULL DEFAULT 0");
+            }
+
+            backfillTaskTimes(conn);
+            backfillSlotTimes(conn);
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE StudyTask DROP COLUMN DurationEstimate");
+                stmt.execute("ALTER TABLE StudyTask DROP COLUMN DeadlineDate");
+                stmt.execute("ALTER TABLE StudyTask DROP COLUMN StartTime");
+                stmt.execute("ALTER TABLE StudyTask DROP COLUMN EndTime");
+                stmt.execute("ALTER TABLE StudyTask DROP COLUMN DayOfWeek");
+
+                stmt.execute("DROP INDEX IF EXISTS idx_Availability_User_Day");
+                stmt.execute("ALTER TABLE Availability DROP COLUMN DayOfWeek");
+                stmt.execute("ALTER TABLE Availability DROP COLUMN StartTime");
+                stmt.execute("ALTER TABLE Availability DROP COLUMN EndTime");
+                stmt.execute("CREATE INDEX idx_Availability_User_Start ON Availability(UserID, StartMinute)");
+            }
+        });
+    }
+
+    // v3: persistent cache of AI schedule responses, keyed by a hash of the canonical request.
+    private static Migration scheduleResponseCache() {
+        return Migration.of(3, "schedule response cache",
+                "CREATE TABLE ScheduleCache (" +
+                        "CacheKey TEXT PRIMARY KEY," +
+                        "UserID INTEGER NOT NULL," +
+                        "Response TEXT NOT NULL," +
+                        "CreatedAt INTEGER NOT NULL," +
+                        "LastAccessed INTEGER NOT NULL" +
+                        ");",
+                "CREATE INDEX idx_ScheduleCache_LastAccessed ON ScheduleCache(LastAccessed)"
+        );
+    }
+
+    // v4: link each Scheduled row to the Pending task it works on, so a schedule can be repaired
+    // block by block. Existing rows are matched on title, which is how they were created.
+    private static Migration scheduleSourceTask() {
+        return Migration.of(4, "scheduled blocks reference their source task",
+                "ALTER TABLE StudyTask ADD COLUMN SourceTaskID INTEGER",
+                "UPDATE StudyTask SET SourceTaskID = (" +
+                        "SELECT P.TaskID FROM StudyTask P " +
+                        "WHERE P.UserID = StudyTask.UserID AND P.Status = 'Pending' AND lower(P.Title) = lower(StudyTask.Title) " +
+                        "ORDER BY P.TaskID LIMIT 1) " +
+                        "WHERE Status = 'Scheduled'"
+        );
+    }
+
+    // v5: calendar dates for scheduled blocks, so plans can span several weeks. Rows from before this
+    // migration keep a NULL day and are treated as belonging to the current planning week.
+    // The (UserID, Status) index is superseded by one that also covers date-range reads.
+    private static Migration scheduledDays() {
+        return Migration.of(5, "calendar day for scheduled blocks",
+                "ALTER TABLE StudyTask ADD COLUMN ScheduledDay INTEGER",
+                "DROP INDEX IF EXISTS idx_StudyTask_User_Status",
+                "CREATE INDEX idx_StudyTask_User_Status_Day ON StudyTask(UserID, Status, ScheduledDay)"
+        );
+    }
+
+    // v6: status-filtered task lists are read in deadline order, page by page. Indexing the same
+    // sort expression as DatabaseManager.TASK_DEADLINE_ORDER lets those reads stop after one page.
+    private static Migration taskDeadlineOrder() {
+        return Migration.of(6, "deadline-ordered index for task lists",
+                "CREATE INDEX idx_StudyTask_User_Status_Deadline ON StudyTask(UserID, Status, IFNULL(DeadlineDay, 2147483647), TaskID)"
+        );
+    }
+
+    // v7: per-subject task counts for the progress screen, kept current by triggers so every write
+    // to StudyTask updates them inside the writer's own transaction, whichever code path it takes.
+    // SubjectID 0 stands for "no subject". Scheduled rows are blocks of a generated plan rather than
+    // tasks, so they are skipped and schedule rewrites pay nothing extra.
+    private static Migration subjectProgressRollup() {
+        return Migration.of(7, "per-subject progress rollup",
+                "CREATE TABLE SubjectProgress (" +
+                        "UserID INTEGER NOT NULL," +
+                        "SubjectID INTEGER NOT NULL," +
+                        "Status TEXT NOT NULL," +
+                        "TaskCount INTEGER NOT NULL," +
+                        "PRIMARY KEY (UserID, SubjectID, Status)" +
+                        ") WITHOUT ROWID;",
+                "INSERT INTO SubjectProgress (UserID, SubjectID, Status, TaskCount) " +
+                        "SELECT UserID, IFNULL(SubjectID, 0), Status, COUNT(*) FROM StudyTask " +
+                        "WHERE Status <> 'Scheduled' GROUP BY UserID, IFNULL(SubjectID, 0), Status",
+                "CREATE TRIGGER trg_StudyTask_Progress_Insert AFTER INSERT ON StudyTask " +
+                        "WHEN NEW.Status <> 'Scheduled' BEGIN " + progressIncrement() + "END",
+                "CREATE TRIGGER trg_StudyTask_Progress_Delete AFTER DELETE ON StudyTask " +
+                        "WHEN OLD.Status <> 'Scheduled' BEGIN " + progressDecrement() + "END",
+                "CREATE TRIGGER trg_StudyTask_Progress_Update AFTER UPDATE OF UserID, SubjectID, Status ON StudyTask " +
+                        "WHEN OLD.UserID IS NOT NEW.UserID OR OLD.SubjectID IS NOT NEW.SubjectID OR OLD.Status IS NOT NEW.Status " +
+                        "BEGIN " + progressDecrement() + progressIncrement() + "END"
+        );
+    }
+
+    // v8: cache expiry deletes by creation time on every store; without an index that delete
+    // scans the whole cache.
+    private static Migration scheduleCacheExpiry() {
+        return Migration.of(8, "schedule cache expiry index",
+                "CREATE INDEX idx_ScheduleCache_CreatedAt ON ScheduleCache(CreatedAt)"
+        );
+    }
+
+    // Both halves skip Scheduled rows themselves, since an update may move a row into or out of that status.
+    private static String progressIncrement() {
+        String newRow = "UserID = NEW.UserID AND SubjectID = IFNULL(NEW.SubjectID, 0) AND Status = NEW.Status";
+        return "INSERT OR IGNORE INTO SubjectProgress (UserID, SubjectID, Status, TaskCount) " +
+                "SELECT NEW.UserID, IFNULL(NEW.SubjectID, 0), NEW.Status, 0 WHERE NEW.Status <> 'Scheduled'; " +
+                "UPDATE SubjectProgress SET TaskCount = TaskCount + 1 WHERE " + newRow + " AND NEW.Status <> 'Scheduled'; ";
+    }
+
+    private static String progressDecrement() {
+        String oldRow = "UserID = OLD.UserID AND SubjectID = IFNULL(OLD.SubjectID, 0) AND Status = OLD.Status";
+        return "UPDATE SubjectProgress SET TaskCount = TaskCount - 1 WHERE " + oldRow + " AND OLD.Status <> 'Scheduled'; " +
+                "DELETE FROM SubjectProgress WHERE " + oldRow + " AND TaskCount <= 0; ";
+    }
+
+    private static void backfillTaskTimes(Connection conn) throws SQLException {
+        String select = "SELECT TaskID, DurationEstimate, DeadlineDate, DayOfWeek, StartTime, EndTime FROM StudyTask";
+        String update = "UPDATE StudyTask SET DurationMinutes = ?, DeadlineDay = ?, StartMinute = ?, EndMinute = ? WHERE TaskID = ?";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(select);
+             PreparedStatement pstmt = conn.prepareStatement(update)) {
+            while (rs.next()) {
+                String day = rs.getString("DayOfWeek");
+                setIntOrNull(pstmt, 1, WeekTime.parseDurationMinutes(rs.getString("DurationEstimate")));
+                setIntOrNull(pstmt, 2, WeekTime.epochDay(rs.getString("DeadlineDate")));
+                setIntOrNull(pstmt, 3, minuteOfWeekOrUnset(day, rs.getString("StartTime")));
+                setIntOrNull(pstmt, 4, minuteOfWeekOrUnset(day, rs.getString("EndTime")));
+                pstmt.setInt(5, rs.getInt("TaskID"));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void backfillSlotTimes(Connection conn) throws SQLException {
+        String select = "SELECT SlotID, DayOfWeek, StartTime, EndTime FROM Availability";
+        int dropped = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(select);
+             PreparedStatement update = conn.prepareStatement("UPDATE Availability SET StartMinute = ?, EndMinute = ? WHERE SlotID = ?");
+             PreparedStatement delete = conn.prepareStatement("DELETE FROM Availability WHERE SlotID = ?")) {
+            while (rs.next()) {
+                String day = rs.getString("DayOfWeek");
+                int start = minuteOfWeekOrUnset(day, rs.getString("StartTime"));
+                int end = minuteOfWeekOrUnset(day, rs.getString("EndTime"));
+                if (start == WeekTime.UNSET || end <= start) {
+                    // A slot that cannot be placed on the week was never usable for scheduling.
+                    delete.setInt(1, rs.getInt("SlotID"));
+                    delete.addBatch();
+                    dropped++;
+                    continue;
+                }
+                update.setInt(1, start);
+                update.setInt(2, end);
+                update.setInt(3, rs.getInt("SlotID"));
+                update.addBatch();
+            }
+            update.executeBatch();
+            delete.executeBatch();
+        }
+        if (dropped > 0) {
+            System.err.println("Migration v2: removed " + dropped + " availability slot(s) with unreadable times.");
+        }
+    }
+
+    private static int minuteOfWeekOrUnset(String day, String time) {
+        if (day == null || time == null) return WeekTime.UNSET;
+        try {
+            return WeekTime.minuteOfWeek(day, time);
+        } catch (IllegalArgumentException e) {
+            return WeekTime.UNSET;
+        }
+    }
+
+    private static void setIntOrNull(PreparedStatement pstmt, int index, int value) throws SQLException {
+        if (value == WeekTime.UNSET) { pstmt.setNull(index, Types.INTEGER); } else { pstmt.setInt(index, value); }
+    }
+}
@@ -0,0 +1,96 @@
+package com.acadia.acadiastudyplanner.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over every filtered DatabaseManager statement and reports any that
+ * fall back to a full table scan. QueryPlanAuditTest fails the build on a scan; the same check can
+ * also run against a live database at startup with -Dacadia.db.auditPlans=true.
+ */
+public final class QueryPlanAudit {
+
+    private QueryPlanAudit() {}
+
+    /** Every DatabaseManager statement with a WHERE clause, keyed by a readable name. */
+    static Map<String, String> auditedQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("userExists", DatabaseManager.SQL_USER_EXISTS);
+        queries.put("validateAndGetUserID", DatabaseManager.SQL_VALIDATE_USER);
+        queries.put("getDisplayName", DatabaseManager.SQL_GET_DISPLAY_NAME);
+        queries.put("updateSubject", DatabaseManager.SQL_UPDATE_SUBJECT);
+        queries.put("deleteSubject", DatabaseManager.SQL_DELETE_SUBJECT);
+        queries.put("loadSubjects", DatabaseManager.SQL_LOAD_SUBJECTS);
+        queries.put("saveUserPreferences", DatabaseManager.SQL_SAVE_PREFERENCES);
+        queries.put("loadUserPreferences", DatabaseManager.SQL_LOAD_PREFERENCES);
+        queries.put("loadAvailableSlots", DatabaseManager.SQL_LOAD_SLOTS);
+        queries.put("deleteAvailableSlot", DatabaseManager.SQL_DELETE_SLOT);
+        queries.put("deleteAllAvailableSlots", DatabaseManager.SQL_DELETE_ALL_SLOTS);
+        queries.put("updateDisplayName", DatabaseManager.SQL_UPDATE_DISPLAY_NAME);
+        queries.put("loadTasksForProgress", DatabaseManager.SQL_LOAD_TASKS);
+        queries.put("loadTasksByStatus", DatabaseManager.SQL_LOAD_TASKS_BY_STATUS);
+        queries.put("loadTasksPage", DatabaseManager.SQL_LOAD_TASKS_PAGE);
+        queries.put("loadSubjectProgress", DatabaseManager.SQL_PROGRESS_ROLLUP);
+        queries.put("loadSubjectProgress (group by)", DatabaseManager.SQL_PROGRESS_GROUP_BY);
+        queries.put("updateTaskStatus", DatabaseManager.SQL_UPDATE_TASK_STATUS);
+        queries.put("clearScheduledTasks", DatabaseManager.SQL_CLEAR_SCHEDULED);
+        queries.put("replaceSchedule (subject lookup)", DatabaseManager.SQL_SUBJECT_IDS_BY_NAME);
+        queries.put("replaceSchedule (task lookup)", DatabaseManager.SQL_PENDING_IDS_BY_TITLE);
+        queries.put("loadScheduledBlocks", DatabaseManager.SQL_LOAD_SCHEDULED);
+        queries.put("applyScheduleDelta", DatabaseManager.SQL_DELETE_SCHEDULED_BLOCK);
+        queries.put("replaceScheduleFrom", DatabaseManager.SQL_CLEAR_SCHEDULED_FROM);
+        queries.put("getCachedScheduleResponse", DatabaseManager.SQL_CACHE_GET);
+        queries.put("getCachedScheduleResponse (touch)", DatabaseManager.SQL_CACHE_TOUCH);
+        queries.put("putCachedScheduleResponse (expire)", DatabaseManager.SQL_CACHE_EXPIRE);
+        queries.put("putCachedScheduleResponse (evict)", DatabaseManager.SQL_CACHE_EVICT);
+        return queries;
+    }
+
+    /**
+     * @return one human-readable finding per full scan; empty when every query uses an index or key.
+     */
+    public static List<String> run() {
+        List<String> findings = new ArrayList<>();
+        try (Connection conn = DatabaseManager.connect()) {
+            for (Map.Entry<String, String> query : auditedQueries().entrySet()) {
+                for (String step : explain(conn, query.getValue())) {
+                    if (isFullScan(step)) {
+                        findings.add(query.getKey() + ": " + step);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            findings.add("Query plan audit failed: " + e.getMessage());
+        }
+        return findings;
+    }
+
+    // Plan rows read "SEARCH <table> USING ..." for indexed lookups and "SCAN <table>" for full scans.
+    // "SCAN <table> USING [COVERING] INDEX ..." walks an index in its order, as an ORDER BY ... LIMIT
+    // read like the cache eviction does, and is not a table scan.
+    static boolean isFullScan(String step) {
+        return step.startsWith("SCAN ") && !step.contains(" USING ");
+    }
+
+    static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int params = pstmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) {
+                pstmt.setInt(i, 1); // Binding values does not change the plan, only the parameter count matters.
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(rs.getString("detail"));
+                }
+            }
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,88 @@
+package com.acadia.acadiastudyplanner.data;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings a database up to the latest schema version. The current version is tracked in
+ * {@code PRAGMA user_version}; every pending migration runs in its own transaction together with
+ * the version bump, so a failed step leaves the database at the last good version.
+ */
+public final class SchemaMigrator {
+
+    /** Outcome of one applied migration, for the startup log. */
+    public static final class Result {
+        private final Migration migration;
+        private final long elapsedMillis;
+
+        Result(Migration migration, long elapsedMillis) {
+            this.migration = migration;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public Migration getMigration() { return migration; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("Applied migration %s in %d ms", migration, elapsedMillis);
+        }
+    }
+
+    private SchemaMigrator() {}
+
+    /**
+     * Applies every migration newer than the database's current version, in order.
+     *
+     * @return one result per applied migration; empty when the schema was already current.
+     */
+    public static List<Result> migrate(Connection conn, List<Migration> migrations) throws SQLException {
+        validateOrder(migrations);
+        int current = currentVersion(conn);
+        int latest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+        if (current > latest) {
+            throw new SQLException("Database schema version " + current + " is newer than this application supports (" + latest + ").");
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= current) continue;
+
+            long start = System.nanoTime();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                migration.apply(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA user_version = " + migration.getVersion());
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw new SQLException("Migration " + migration + " failed: " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            results.add(new Result(migration, (System.nanoTime() - start) / 1_000_000));
+        }
+        return results;
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void validateOrder(List<Migration> migrations) {
+        for (int i = 0; i < migrations.size(); i++) {
+            if (migrations.get(i).getVersion() != i + 1) {
+                throw new IllegalStateException("Migrations must be numbered 1..n without gaps; found " + migrations.get(i) + " at position " + (i + 1));
+            }
+        }
+    }
+}
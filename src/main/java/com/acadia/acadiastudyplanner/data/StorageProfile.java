@@ -0,0 +1,90 @@
+package com.acadia.acadiastudyplanner.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQLite tuning applied to every pooled connection when it is first opened.
+ * Two presets are provided; individual values can be overridden with system properties
+ * (acadia.db.profile, acadia.db.synchronous, acadia.db.cacheSizeKb, acadia.db.mmapSizeMb,
+ * acadia.db.checkpointSeconds).
+ */
+public final class StorageProfile {
+
+    /** WAL with a full fsync on every commit: survives power loss, still lets readers run during writes. */
+    public static final StorageProfile DURABLE = new StorageProfile("durable", "WAL", "FULL", 16 * 1024, 64, "MEMORY", 1000, 60);
+
+    /** WAL with NORMAL sync: commits fsync only at checkpoints. A crash can lose the last commits, never corrupt the file. */
+    public static final StorageProfile FAST = new StorageProfile("fast", "WAL", "NORMAL", 64 * 1024, 256, "MEMORY", 4000, 30);
+
+    private final String name;
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSizeKb;
+    private final int mmapSizeMb;
+    private final String tempStore;
+    private final int autoCheckpointPages;
+    private final int checkpointIntervalSeconds;
+
+    public StorageProfile(String name, String journalMode, String synchronous, int cacheSizeKb, int mmapSizeMb,
+                          String tempStore, int autoCheckpointPages, int checkpointIntervalSeconds) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSizeKb = cacheSizeKb;
+        this.mmapSizeMb = mmapSizeMb;
+        this.tempStore = tempStore;
+        this.autoCheckpointPages = autoCheckpointPages;
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+    }
+
+    /**
+     * Resolves the active profile: the preset named by acadia.db.profile (default "durable"),
+     * with any per-setting overrides applied on top.
+     */
+    public static StorageProfile fromSystemProperties() {
+        StorageProfile base = "fast".equalsIgnoreCase(System.getProperty("acadia.db.profile")) ? FAST : DURABLE;
+        return new StorageProfile(
+                base.name,
+                base.journalMode,
+                System.getProperty("acadia.db.synchronous", base.synchronous).toUpperCase(),
+                Integer.getInteger("acadia.db.cacheSizeKb", base.cacheSizeKb),
+                Integer.getInteger("acadia.db.mmapSizeMb", base.mmapSizeMb),
+                base.tempStore,
+                base.autoCheckpointPages,
+                Integer.getInteger("acadia.db.checkpointSeconds", base.checkpointIntervalSeconds)
+        );
+    }
+
+    /**
+     * Applies the PRAGMA set to a freshly opened connection.
+     */
+    void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=" + journalMode);
+            stmt.execute("PRAGMA synchronous=" + synchronous);
+            // A negative cache_size is interpreted by SQLite as KiB rather than pages.
+            stmt.execute("PRAGMA cache_size=-" + cacheSizeKb);
+            stmt.execute("PRAGMA mmap_size=" + (long) mmapSizeMb * 1024 * 1024);
+            stmt.execute("PRAGMA temp_store=" + tempStore);
+            // Safety net only; the background checkpointer normally keeps the WAL short.
+            stmt.execute("PRAGMA wal_autocheckpoint=" + autoCheckpointPages);
+        }
+    }
+
+    public String getName() { return name; }
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSizeKb() { return cacheSizeKb; }
+    public int getMmapSizeMb() { return mmapSizeMb; }
+    public String getTempStore() { return tempStore; }
+    public int getAutoCheckpointPages() { return autoCheckpointPages; }
+    public int getCheckpointIntervalSeconds() { return checkpointIntervalSeconds; }
+
+    @Override
+    public String toString() {
+        return String.format("%s (journal=%s, synchronous=%s, cache=%dKiB, mmap=%dMiB, checkpoint every %ds)",
+                name, journalMode, synchronous, cacheSizeKb, mmapSizeMb, checkpointIntervalSeconds);
+    }
+}
@@ -0,0 +1,207 @@
+package com.acadia.acadiastudyplanner.data;
+
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.Subject;
+import com.acadia.acadiastudyplanner.model.SubjectProgress;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One user's subjects, pending tasks, preferences and availability slots, read from SQLite once and
+ * then served from memory.
+ * <p>
+ * Writes go through to the database first and are then applied to the cached copy, so a failed write
+ * never leaves the cache ahead of the database (the affected group is dropped instead). Changes made
+ * behind the repository's back, such as schedule rows written by the scheduler, must be announced
+ * with one of the {@code invalidate} methods; the next read then reloads that group. Each group has
+ * its own lock, so loads of different groups can run concurrently. Lists handed out are unmodifiable
+ * snapshots.
+ */
+public final class UserRepository {
+
+    private static final String PENDING = "Pending";
+
+    private final int userId;
+    private final Cached<List<Subject>> subjects;
+    private final Cached<List<StudyTask>> pendingTasks;
+    private final Cached<Map<String, Object>> preferences;
+    private final Cached<List<AvailabilitySlot>> slots;
+
+    public UserRepository(int userId) {
+        this.userId = userId;
+        this.subjects = new Cached<>(() -> DatabaseManager.loadSubjects(userId));
+        this.pendingTasks = new Cached<>(() -> DatabaseManager.loadTasksByStatus(userId, PENDING));
+        this.preferences = new Cached<>(() -> DatabaseManager.loadUserPreferences(userId));
+        this.slots = new Cached<>(() -> DatabaseManager.loadAvailableSlots(userId));
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    // --- Subjects ---
+
+    public List<Subject> getSubjects() throws SQLException {
+        return subjects.read(List::copyOf);
+    }
+
+    /** @return the new SubjectID, which is also set on {@code subject} */
+    public int insertSubject(Subject subject) throws SQLException {
+        int id = write(subjects, () -> DatabaseManager.insertSubject(subject, userId));
+        subject.setId(id);
+        subjects.update(list -> list.add(subject));
+        return id;
+    }
+
+    public void updateSubject(Subject subject) throws SQLException {
+        write(subjects, () -> { DatabaseManager.updateSubject(subject); return null; });
+        subjects.update(list -> list.replaceAll(s -> s.getId() == subject.getId() ? subject : s));
+        invalidateTasks(); // tasks carry the subject name
+    }
+
+    public void deleteSubject(int subjectId) throws SQLException {
+        write(subjects, () -> { DatabaseManager.deleteSubject(subjectId); return null; });
+        subjects.update(list -> list.removeIf(s -> s.getId() == subjectId));
+        invalidateTasks();
+    }
+
+    // --- Tasks ---
+
+    /** Pending tasks only, earliest deadline first (undated last). */
+    public List<StudyTask> getPendingTasks() throws SQLException {
+        return pendingTasks.read(List::copyOf);
+    }
+
+    /**
+     * One page of pending tasks in {@link #getPendingTasks} order, read straight from the database
+     * for lists that page in as the user scrolls.
+     *
+     * @param after the last task of the previous page, or null for the first page
+     * @return at most {@code limit} tasks; fewer means this was the last page
+     */
+    public List<StudyTask> getPendingTasksPage(StudyTask after, int limit) throws SQLException {
+        return DatabaseManager.loadTasksPage(userId, PENDING, after, limit);
+    }
+
+    /** @return the new TaskID, or -1 if the insert failed */
+    public int insertTask(StudyTask task) throws SQLException {
+        int id = write(pendingTasks, () -> DatabaseManager.insertAcademicTask(task, userId));
+        invalidateTasks(); // the stored row gains a subject name and defaults from the database
+        return id;
+    }
+
+    public void updateTaskStatus(int taskId, String status) throws SQLException {
+        write(pendingTasks, () -> { DatabaseManager.updateTaskStatus(taskId, status); return null; });
+        if (status.equals(PENDING)) {
+            pendingTasks.invalidate(); // the task joins the list at its deadline position
+        } else {
+            pendingTasks.update(list -> list.removeIf(t -> t.getId() == taskId));
+        }
+    }
+
+    /**
+     * Completed and total task counts per subject. Read from the database each time: the rollup
+     * behind it is already one row per subject and status, so there is nothing worth caching.
+     */
+    public List<SubjectProgress> getSubjectProgress() throws SQLException {
+        return DatabaseManager.loadSubjectProgress(userId);
+    }
+
+    /** Call after writing task rows directly, e.g. after storing a generated schedule. */
+    public void invalidateTasks() {
+        pendingTasks.invalidate();
+    }
+
+    // --- Preferences and profile ---
+
+    public Map<String, Object> getPreferences() throws SQLException {
+        return preferences.read(map -> Collections.unmodifiableMap(new HashMap<>(map)));
+    }
+
+    public void savePreferences(int breakLength, int breakFrequency, String learningPreferences) throws SQLException {
+        write(preferences, () -> { DatabaseManager.saveUserPreferences(userId, breakLength, breakFrequency, learningPreferences); return null; });
+        preferences.update(map -> {
+            map.put("BreakLength", breakLength);
+            map.put("BreakFrequency", breakFrequency);
+            map.put("LearningPreferences", learningPreferences);
+        });
+    }
+
+    public void updateDisplayName(String displayName) throws SQLException {
+        write(preferences, () -> { DatabaseManager.updateDisplayName(userId, displayName); return null; });
+        preferences.update(map -> map.put("DisplayName", displayName));
+    }
+
+    // --- Availability ---
+
+    public List<AvailabilitySlot> getSlots() throws SQLException {
+        return slots.read(List::copyOf);
+    }
+
+    public void replaceSlots(List<AvailabilitySlot> newSlots) throws SQLException {
+        List<AvailabilitySlot> stored = write(slots, () -> DatabaseManager.replaceAvailableSlots(userId, newSlots));
+        slots.update(list -> {
+            list.clear();
+            list.addAll(stored);
+        });
+    }
+
+    /** Drops everything; the next read of each group goes back to the database. */
+    public void invalidate() {
+        subjects.invalidate();
+        invalidateTasks();
+        preferences.invalidate();
+        slots.invalidate();
+    }
+
+    @FunctionalInterface
+    private interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    // A failed write may have partly applied (e.g. a model object mutated before the call), so the group is reloaded next time.
+    private static <T> T write(Cached<?> group, Loader<T> work) throws SQLException {
+        try {
+            return work.load();
+        } catch (SQLException | RuntimeException e) {
+            group.invalidate();
+            throw e;
+        }
+    }
+
+    /**
+     * A lazily loaded value guarded by its own lock. The DatabaseManager loaders return fresh mutable
+     * collections, which writes then patch in place.
+     */
+    private static final class Cached<T> {
+        private final Loader<T> loader;
+        private T value; // null until loaded, and again after invalidate()
+
+        private Cached(Loader<T> loader) {
+            this.loader = loader;
+        }
+
+        synchronized <R> R read(Function<T, R> snapshot) throws SQLException {
+            if (value == null) {
+                value = loader.load();
+            }
+            return snapshot.apply(value);
+        }
+
+        /** Applies a write to the cached value; nothing to do if it is not loaded. */
+        synchronized void update(Consumer<T> change) {
+            if (value != null) change.accept(value);
+        }
+
+        synchronized void invalidate() {
+            value = null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.acadia.acadiastudyplanner.data;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs WAL checkpoints on a background daemon thread so that the (otherwise automatic)
+ * checkpoint work does not land on whichever caller happens to commit, usually the FX thread.
+ */
+final class WalCheckpointer {
+
+    private final ConnectionPool pool;
+    private final int intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    WalCheckpointer(ConnectionPool pool, int intervalSeconds) {
+        this.pool = pool;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    synchronized void start() {
+        if (scheduler != null || intervalSeconds <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "acadia-wal-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> checkpoint("PASSIVE"), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the background task and truncates the WAL so the database file is self-contained on exit.
+     */
+    synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        checkpoint("TRUNCATE");
+    }
+
+    private void checkpoint(String mode) {
+        try (Connection conn = pool.borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            // Columns: busy flag, frames in WAL, frames checkpointed.
+            if (rs.next() && rs.getInt(1) != 0) {
+                System.err.println("WAL checkpoint (" + mode + ") skipped: database busy.");
+            }
+        } catch (SQLException e) {
+            System.err.println("WAL checkpoint (" + mode + ") failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.acadia.acadiastudyplanner.model;
+
+/**
+ * A recurring weekly window in which the user is free to study.
+ * Start and end are minute-of-week values (see {@link WeekTime}); the end is exclusive.
+ */
+public class AvailabilitySlot implements Comparable<AvailabilitySlot> {
+    private int id;
+    private final int startMinute;
+    private final int endMinute;
+
+    // Constructor for loading from DB
+    public AvailabilitySlot(int id, int startMinute, int endMinute) {
+        if (endMinute <= startMinute) {
+            throw new IllegalArgumentException("Slot must end after it starts.");
+        }
+        this.id = id;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    // Constructor for a NEW slot entered in the UI (ID will be -1 until saved)
+    public AvailabilitySlot(String day, String startTime, String endTime) {
+        this(-1, WeekTime.minuteOfWeek(day, startTime), WeekTime.minuteOfWeek(day, endTime));
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public int getStartMinute() { return startMinute; }
+    public int getEndMinute() { return endMinute; }
+    public int getDurationMinutes() { return endMinute - startMinute; }
+
+    // Display getters, converted at the edge
+    public String getDay() { return WeekTime.dayOf(startMinute); }
+    public String getStartTime() { return WeekTime.timeOf(startMinute); }
+    public String getEndTime() { return WeekTime.endTimeOf(startMinute, endMinute); }
+
+    public boolean isWeekend() {
+        return startMinute >= 5 * WeekTime.MINUTES_PER_DAY;
+    }
+
+    public boolean overlaps(AvailabilitySlot other) {
+        return startMinute < other.endMinute && other.startMinute < endMinute;
+    }
+
+    @Override
+    public int compareTo(AvailabilitySlot other) {
+        return startMinute != other.startMinute
+                ? Integer.compare(startMinute, other.startMinute)
+                : Integer.compare(endMinute, other.endMinute);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s - %s", getDay(), getStartTime(), getEndTime());
+    }
+}
@@ -10,6 +10,24 @@ public class ScheduleBlock {
     private String task_title;
     private String time_start;
     private String time_end;
+    // Calendar date (yyyy-MM-dd) of the block; optional in the JSON and null for undated weekly blocks
+    private String date;
+
+    // Database identity, never part of the model's JSON: the StudyTask row holding this block and the
+    // pending task it works on. UNSET for blocks that have not been stored or could not be matched.
+    private transient int rowId = WeekTime.UNSET;
+    private transient int taskId = WeekTime.UNSET;
+
+    // Gson instantiates through the no-arg constructor
+    public ScheduleBlock() {}
+
+    public ScheduleBlock(String day, String subjectName, String taskTitle, String timeStart, String timeEnd) {
+        this.day = day;
+        this.subject_name = subjectName;
+        this.task_title = taskTitle;
+        this.time_start = timeStart;
+        this.time_end = timeEnd;
+    }
 
     // Getters are required for Gson
     public String getDay() { return day; }
@@ -17,4 +35,66 @@ public class ScheduleBlock {
     public String getTaskTitle() { return task_title; }
     public String getTimeStart() { return time_start; }
     public String getTimeEnd() { return time_end; }
+    public String getDate() { return date; }
+    public int getRowId() { return rowId; }
+    public int getTaskId() { return taskId; }
+
+    // Integer encoding (see WeekTime); the JSON fields stay strings because that is the model's output format
+    public int getStartMinute() { return WeekTime.minuteOfWeek(day, time_start); }
+    public int getEndMinute() { return WeekTime.minuteOfWeek(day, time_end); }
+    public int getScheduledDay() { return WeekTime.epochDay(date); }
+
+    /**
+     * A copy of this block placed on a calendar day (epoch-day); ids are kept.
+     */
+    public ScheduleBlock onDay(int epochDay) {
+        ScheduleBlock copy = new ScheduleBlock(day, subject_name, task_title, time_start, time_end);
+        copy.date = WeekTime.formatDate(epochDay);
+        copy.rowId = rowId;
+        copy.taskId = taskId;
+        return copy;
+    }
+
+    /**
+     * The calendar day of this block if it is dated, otherwise the matching weekday of the week that
+     * starts on {@code weekStartDay}.
+     */
+    public int dayIn(int weekStartDay) {
+        int scheduled = getScheduledDay();
+        return scheduled != WeekTime.UNSET ? scheduled : weekStartDay + WeekTime.dayIndex(day);
+    }
+
+    /**
+     * Builds a block from minute-of-week values, e.g. for schedules produced locally rather than by the AI.
+     */
+    public static ScheduleBlock of(String subjectName, String taskTitle, int startMinute, int endMinute) {
+        return new ScheduleBlock(WeekTime.dayOf(startMinute), subjectName, taskTitle,
+                WeekTime.timeOf(startMinute), WeekTime.endTimeOf(startMinute, endMinute));
+    }
+
+    /**
+     * A block for a known pending task.
+     */
+    public static ScheduleBlock of(String subjectName, String taskTitle, int startMinute, int endMinute, int taskId) {
+        ScheduleBlock block = of(subjectName, taskTitle, startMinute, endMinute);
+        block.taskId = taskId;
+        return block;
+    }
+
+    /**
+     * A block loaded from its StudyTask row.
+     */
+    public static ScheduleBlock stored(int rowId, int taskId, String subjectName, String taskTitle, int startMinute, int endMinute,
+                                       int scheduledDay) {
+        ScheduleBlock block = of(subjectName, taskTitle, startMinute, endMinute, taskId);
+        block.rowId = rowId;
+        block.date = WeekTime.formatDate(scheduledDay);
+        return block;
+    }
+
+    @Override
+    public String toString() {
+        String when = date == null ? day : day + " " + date;
+        return String.format("%s %s-%s %s (%s)", when, time_start, time_end, task_title, subject_name);
+    }
 }
@@ -1,42 +1,47 @@
 package com.acadia.acadiastudyplanner.model;
 
+/**
+ * A user's academic task or a scheduled study block.
+ * Times are held in the compact integer encoding described in {@link WeekTime};
+ * the String getters convert at the edge for display and the AI prompt.
+ */
 public class StudyTask {
     private int id;
     private int subjectId;
     private String title;
     private String taskType;
-    private String durationEstimate;
-    private String deadlineDate;
-    private String startTime;         // Re-added for scheduled tasks
-    private String endTime;           // Re-added for scheduled tasks
-    private String dayOfWeek;         // Re-added for scheduled tasks
+    private int durationMinutes;      // WeekTime.UNSET when not estimated
+    private int deadlineDay;          // epoch-day, WeekTime.UNSET when none
+    private int startMinute;          // minute-of-week, scheduled tasks only
+    private int endMinute;            // minute-of-week (exclusive), scheduled tasks only
     private String status;
     private String subjectName;       // Temporary field for display purposes
 
     // --- Constructor for loading from DB (Must match loadTasksForProgress in DatabaseManager) ---
-    public StudyTask(int id, int subjectId, String title, String taskType, String durationEstimate,
-                     String deadlineDate, String startTime, String endTime, String dayOfWeek, String status) {
+    public StudyTask(int id, int subjectId, String title, String taskType, int durationMinutes,
+                     int deadlineDay, int startMinute, int endMinute, String status) {
         this.id = id;
         this.subjectId = subjectId;
         this.title = title;
         this.taskType = taskType;
-        this.durationEstimate = durationEstimate;
-        this.deadlineDate = deadlineDate;
-        this.startTime = startTime;
-        this.endTime = endTime;
-        this.dayOfWeek = dayOfWeek;
+        this.durationMinutes = durationMinutes;
+        this.deadlineDay = deadlineDay;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
         this.status = status;
         this.subjectName = (subjectId == -1) ? "General" : null;
     }
 
     // --- Constructor for creating a NEW PENDING task (Input fields) ---
-    public StudyTask(int subjectId, String title, String taskType, String durationEstimate, String deadlineDate) {
+    public StudyTask(int subjectId, String title, String taskType, int durationMinutes, int deadlineDay) {
         this.id = -1;
         this.subjectId = subjectId;
         this.title = title;
         this.taskType = taskType;
-        this.durationEstimate = durationEstimate;
-        this.deadlineDate = deadlineDate;
+        this.durationMinutes = durationMinutes;
+        this.deadlineDay = deadlineDay;
+        this.startMinute = WeekTime.UNSET;
+        this.endMinute = WeekTime.UNSET;
         this.status = "Pending";
         this.subjectName = "General";
     }
@@ -46,14 +51,20 @@ public class StudyTask {
     public int getSubjectId() { return subjectId; }
     public String getTitle() { return title; }
     public String getTaskType() { return taskType; }
-    public String getDurationEstimate() { return durationEstimate; }
-    public String getDeadlineDate() { return deadlineDate; }
-    public String getStartTime() { return startTime; }
-    public String getEndTime() { return endTime; }
-    public String getDayOfWeek() { return dayOfWeek; }
+    public int getDurationMinutes() { return durationMinutes; }
+    public int getDeadlineDay() { return deadlineDay; }
+    public int getStartMinute() { return startMinute; }
+    public int getEndMinute() { return endMinute; }
     public String getStatus() { return status; }
     public String getSubjectName() { return subjectName; }
 
+    // Display getters, converted from the integer encoding
+    public String getDurationEstimate() { return WeekTime.formatDuration(durationMinutes); }
+    public String getDeadlineDate() { return WeekTime.formatDate(deadlineDay); }
+    public String getStartTime() { return startMinute == WeekTime.UNSET ? null : WeekTime.timeOf(startMinute); }
+    public String getEndTime() { return endMinute == WeekTime.UNSET ? null : WeekTime.endTimeOf(startMinute, endMinute); }
+    public String getDayOfWeek() { return startMinute == WeekTime.UNSET ? null : WeekTime.dayOf(startMinute); }
+
     // Setters
     public void setId(int id) { this.id = id; }
     public void setStatus(String status) { this.status = status; }
@@ -61,6 +72,6 @@ public class StudyTask {
 
     @Override
     public String toString() {
-        return String.format("[%s] %s: %s (Due: %s, Time: %s)", taskType, title, subjectId == -1 ? "General" : "SubjectID " + subjectId, deadlineDate, durationEstimate);
+        return String.format("[%s] %s: %s (Due: %s, Time: %s)", taskType, title, subjectId == -1 ? "General" : "SubjectID " + subjectId, getDeadlineDate(), getDurationEstimate());
     }
 }
@@ -0,0 +1,26 @@
+package com.acadia.acadiastudyplanner.model;
+
+/**
+ * Task counts for one subject on the progress screen. Tasks without a subject are grouped under
+ * "General"; rows of a generated schedule are not tasks and are never counted.
+ */
+public class SubjectProgress {
+    private final String subjectName;
+    private final int completed;
+    private final int total;
+
+    public SubjectProgress(String subjectName, int completed, int total) {
+        this.subjectName = subjectName;
+        this.completed = completed;
+        this.total = total;
+    }
+
+    public String getSubjectName() { return subjectName; }
+    public int getCompleted() { return completed; }
+    public int getTotal() { return total; }
+
+    /** @return the completed fraction, 0.0 to 1.0 */
+    public double getFraction() {
+        return total > 0 ? (double) completed / total : 0.0;
+    }
+}
@@ -0,0 +1,152 @@
+package com.acadia.acadiastudyplanner.model;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converters between the compact integer time encoding used in storage and the display strings
+ * used at the edges (UI fields, the AI prompt and its JSON response).
+ * <ul>
+ *   <li>minute-of-week: 0 = Monday 00:00, 10079 = Sunday 23:59 (slots and scheduled blocks)</li>
+ *   <li>epoch-day: days since 1970-01-01 (deadlines)</li>
+ *   <li>minutes: plain integer durations</li>
+ * </ul>
+ * {@link #UNSET} marks an absent value, matching the -1 convention used for IDs.
+ */
+public final class WeekTime {
+
+    public static final int UNSET = -1;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    public static final List<String> DAYS = List.of("MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN");
+
+    private static final Pattern CLOCK = Pattern.compile("(\\d{1,2}):(\\d{2})");
+    private static final Pattern HOURS_MINUTES = Pattern.compile("(?:(\\d+(?:\\.\\d+)?)\\s*h(?:ours?|rs?)?)?\\s*(?:(\\d+)\\s*m(?:in(?:ute)?s?)?)?");
+
+    private WeekTime() {}
+
+    // --- minute-of-week ---
+
+    /**
+     * @param day "MON".."SUN" (full names and any case are accepted)
+     * @param hhmm a 24-hour "HH:MM" time; "24:00" is allowed as an end-of-day boundary
+     */
+    public static int minuteOfWeek(String day, String hhmm) {
+        return dayIndex(day) * MINUTES_PER_DAY + minuteOfDay(hhmm);
+    }
+
+    public static int minuteOfWeek(int dayIndex, int minuteOfDay) {
+        return dayIndex * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    public static int dayIndex(String day) {
+        if (day != null && day.trim().length() >= 3) {
+            int index = DAYS.indexOf(day.trim().substring(0, 3).toUpperCase(Locale.ROOT));
+            if (index >= 0) return index;
+        }
+        throw new IllegalArgumentException("Unknown day of week: " + day);
+    }
+
+    public static int minuteOfDay(String hhmm) {
+        Matcher m = hhmm == null ? null : CLOCK.matcher(hhmm.trim());
+        if (m == null || !m.matches()) {
+            throw new IllegalArgumentException("Time must be in HH:MM format: " + hhmm);
+        }
+        int hours = Integer.parseInt(m.group(1));
+        int minutes = Integer.parseInt(m.group(2));
+        if (minutes > 59 || hours > 24 || (hours == 24 && minutes > 0)) {
+            throw new IllegalArgumentException("Time out of range: " + hhmm);
+        }
+        return hours * 60 + minutes;
+    }
+
+    /** Day label ("MON".."SUN") of a minute-of-week. */
+    public static String dayOf(int minuteOfWeek) {
+        return DAYS.get(Math.floorMod(minuteOfWeek, MINUTES_PER_WEEK) / MINUTES_PER_DAY);
+    }
+
+    public static String timeOf(int minuteOfWeek) {
+        int minuteOfDay = Math.floorMod(minuteOfWeek, MINUTES_PER_DAY);
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /** Formats an exclusive end minute, rendering a midnight boundary as "24:00" of the same day. */
+    public static String endTimeOf(int startMinuteOfWeek, int endMinuteOfWeek) {
+        if (endMinuteOfWeek > startMinuteOfWeek && endMinuteOfWeek % MINUTES_PER_DAY == 0) {
+            return "24:00";
+        }
+        return timeOf(endMinuteOfWeek);
+    }
+
+    // --- epoch-day ---
+
+    /** @return the epoch-day of an ISO yyyy-MM-dd date, or {@link #UNSET} when blank or unparseable. */
+    public static int epochDay(String isoDate) {
+        if (isoDate == null || isoDate.isBlank()) return UNSET;
+        try {
+            return (int) LocalDate.parse(isoDate.trim()).toEpochDay();
+        } catch (DateTimeException e) {
+            return UNSET;
+        }
+    }
+
+    public static int epochDay(LocalDate date) {
+        return date == null ? UNSET : (int) date.toEpochDay();
+    }
+
+    /** Epoch-day of the Monday that starts the planning week: today if it is a Monday, else the next one. */
+    public static int upcomingWeekStart(LocalDate today) {
+        return (int) today.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY)).toEpochDay();
+    }
+
+    public static String formatDate(int epochDay) {
+        return epochDay == UNSET ? null : LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    // --- durations ---
+
+    /**
+     * Parses free-form durations such as "90", "90m", "45 min", "2h", "1.5 hours", "2h 30m" or "1:30".
+     * A bare number is read as minutes.
+     *
+     * @return whole minutes, or {@link #UNSET} when the text is not a recognisable duration.
+     */
+    public static int parseDurationMinutes(String text) {
+        if (text == null || text.isBlank()) return UNSET;
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (value.matches("\\d+")) {
+                return positiveOrUnset(Integer.parseInt(value));
+            }
+            Matcher clock = CLOCK.matcher(value);
+            if (clock.matches()) {
+                return positiveOrUnset(Integer.parseInt(clock.group(1)) * 60 + Integer.parseInt(clock.group(2)));
+            }
+            Matcher hm = HOURS_MINUTES.matcher(value);
+            if (hm.matches() && (hm.group(1) != null || hm.group(2) != null)) {
+                double hours = hm.group(1) != null ? Double.parseDouble(hm.group(1)) : 0;
+                int minutes = hm.group(2) != null ? Integer.parseInt(hm.group(2)) : 0;
+                return positiveOrUnset((int) Math.round(hours * 60) + minutes);
+            }
+        } catch (NumberFormatException e) {
+            return UNSET;
+        }
+        return UNSET;
+    }
+
+    public static String formatDuration(int minutes) {
+        if (minutes == UNSET) return null;
+        if (minutes < 60) return minutes + "m";
+        return minutes % 60 == 0 ? (minutes / 60) + "h" : String.format("%dh %dm", minutes / 60, minutes % 60);
+    }
+
+    private static int positiveOrUnset(int minutes) {
+        return minutes > 0 ? minutes : UNSET;
+    }
+}
@@ -0,0 +1,62 @@
+package com.acadia.acadiastudyplanner.service;
+
+import java.time.Duration;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the circuit
+ * opens and calls are refused for {@code openDuration}; then a single probe is let through, and its
+ * outcome either closes the circuit or re-opens it for another period.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long probeStartedAt = -1;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+    }
+
+    /** @return whether a call may be made now; in HALF_OPEN only one probe at a time is allowed. */
+    synchronized boolean allowRequest() {
+        if (failureThreshold <= 0) return true; // breaker disabled
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN) {
+            if (now - openedAt < openMillis) return false;
+            state = State.HALF_OPEN;
+            probeStartedAt = -1;
+        }
+        if (state == State.HALF_OPEN) {
+            // A probe that was cancelled never reports back, so it is only exclusive for one open period.
+            if (probeStartedAt >= 0 && now - probeStartedAt < openMillis) return false;
+            probeStartedAt = now;
+        }
+        return true;
+    }
+
+    synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeStartedAt = -1;
+    }
+
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (failureThreshold > 0 && (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            probeStartedAt = -1;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,122 @@
+package com.acadia.acadiastudyplanner.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLSession;
+
+/**
+ * A response body whose reads fail with {@link HttpTimeoutException} when no data arrives for the idle
+ * timeout. The request timeout only covers the wait for response headers; without this, a stream that
+ * stops sending would block its reader forever.
+ * <p>
+ * Every read arms a deadline on a shared watchdog thread. If the read is still blocked when it fires,
+ * the underlying stream is closed, which wakes the reader; the read then reports the timeout. Time the
+ * caller spends between reads (e.g. handling a parsed block) does not count.
+ */
+final class IdleTimeoutInputStream extends FilterInputStream {
+
+    private static final ScheduledThreadPoolExecutor WATCHDOG = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "acadia-http-idle-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        WATCHDOG.setRemoveOnCancelPolicy(true);
+    }
+
+    private final long idleMillis;
+    private volatile boolean timedOut;
+
+    private IdleTimeoutInputStream(InputStream in, Duration idleTimeout) {
+        super(in);
+        this.idleMillis = idleTimeout.toMillis();
+    }
+
+    /** The same response with its body wrapped; a zero or negative timeout returns it unchanged. */
+    static HttpResponse<InputStream> wrap(HttpResponse<InputStream> response, Duration idleTimeout) {
+        if (idleTimeout.isZero() || idleTimeout.isNegative()) return response;
+        return new TimedResponse(response, new IdleTimeoutInputStream(response.body(), idleTimeout));
+    }
+
+    @Override
+    public int read() throws IOException {
+        return (int) timed(in::read);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return (int) timed(() -> in.read(b, off, len));
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        return timed(() -> in.skip(n));
+    }
+
+    @FunctionalInterface
+    private interface Read {
+        long run() throws IOException;
+    }
+
+    // A read woken by the watchdog returns end-of-stream or fails; either way the real cause is the timeout.
+    private long timed(Read read) throws IOException {
+        if (timedOut) throw timeout();
+        ScheduledFuture<?> deadline = WATCHDOG.schedule(this::expire, idleMillis, TimeUnit.MILLISECONDS);
+        try {
+            long result = read.run();
+            if (timedOut) throw timeout();
+            return result;
+        } catch (IOException e) {
+            if (timedOut && !(e instanceof HttpTimeoutException)) throw timeout();
+            throw e;
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    private void expire() {
+        timedOut = true;
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // The reader is told about the timeout instead.
+        }
+    }
+
+    private HttpTimeoutException timeout() {
+        return new HttpTimeoutException("No response data for " + idleMillis + " ms.");
+    }
+
+    /** Delegates everything but the body to the original response. */
+    private static final class TimedResponse implements HttpResponse<InputStream> {
+        private final HttpResponse<InputStream> response;
+        private final InputStream body;
+
+        private TimedResponse(HttpResponse<InputStream> response, InputStream body) {
+            this.response = response;
+            this.body = body;
+        }
+
+        @Override public int statusCode() { return response.statusCode(); }
+        @Override public HttpRequest request() { return response.request(); }
+        @Override public Optional<HttpResponse<InputStream>> previousResponse() { return response.previousResponse(); }
+        @Override public HttpHeaders headers() { return response.headers(); }
+        @Override public InputStream body() { return body; }
+        @Override public Optional<SSLSession> sslSession() { return response.sslSession(); }
+        @Override public URI uri() { return response.uri(); }
+        @Override public HttpClient.Version version() { return response.version(); }
+    }
+}
@@ -0,0 +1,310 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.Subject;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process greedy solver: packs pending tasks into the week's availability slots without any
+ * network call. Tasks are taken in priority order (earliest effective deadline first, then harder
+ * subjects), blocks are capped at 120 minutes or the user's break frequency, and every block is
+ * followed by the user's break length before the next one in the same slot.
+ */
+public class LocalScheduleEngine implements ScheduleEngine {
+
+    static final int MAX_BLOCK_MINUTES = 120;
+    static final int MIN_BLOCK_MINUTES = 15;
+    static final int DEFAULT_TASK_MINUTES = 60;
+
+    private final Clock clock;
+
+    public LocalScheduleEngine() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public LocalScheduleEngine(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public List<ScheduleBlock> generate(SchedulingContext context) {
+        int weekStartDay = context.getWeekStartDay();
+        List<AvailabilitySlot> slots = new ArrayList<>(context.getAvailability());
+        slots.sort(null);
+        return place(prioritise(context, weekStartDay, Map.of()), slots, weekStartDay, blockCap(context), breakLength(context));
+    }
+
+    /**
+     * Plans {@code weeks} consecutive weeks in one pass, starting on the Monday {@code fromWeekStart}
+     * (epoch-day). The weekly availability repeats every week and one priority queue runs across the
+     * whole horizon, so long tasks spread over several weeks and each task stays before its own
+     * deadline or exam. Blocks carry real dates.
+     *
+     * @param coveredMinutes minutes per task ID that are already scheduled elsewhere (e.g. in the
+     *                       weeks before the horizon being extended); only the rest is planned
+     */
+    public List<ScheduleBlock> planHorizon(SchedulingContext context, int fromWeekStart, int weeks,
+                                           Map<Integer, Integer> coveredMinutes) {
+        List<AvailabilitySlot> slots = new ArrayList<>(context.getAvailability());
+        slots.sort(null);
+        List<WorkItem> queue = prioritise(context, fromWeekStart, coveredMinutes);
+        List<ScheduleBlock> blocks = new ArrayList<>();
+        for (int week = 0; week < weeks && !queue.isEmpty(); week++) {
+            blocks.addAll(place(queue, slots, fromWeekStart + 7 * week, blockCap(context), breakLength(context)));
+        }
+        return blocks;
+    }
+
+    /**
+     * Incrementally re-plans an existing schedule after small edits. Stored blocks stay where they are
+     * as long as they are still valid: the task is still pending and still needs the time, the block
+     * lies inside a current slot and before the task's deadline, and it respects the block cap and the
+     * break after the previous kept block. Dated blocks in later weeks are validated the same way.
+     * Blocks that never resolved to a task (e.g. AI blocks whose title matched no task) are kept as long
+     * as they still lie inside a slot; only the task can tell whether they are still needed. Everything
+     * else is dropped, and only the minutes that are no longer covered are packed into the gaps left in
+     * the current week.
+     *
+     * @param existing the stored schedule, with row and task IDs (see DatabaseManager.loadScheduledBlocks)
+     */
+    public ScheduleRepair repair(SchedulingContext context, List<ScheduleBlock> existing) {
+        int weekStartDay = context.getWeekStartDay();
+        int blockCap = blockCap(context);
+        int breakLength = breakLength(context);
+        List<AvailabilitySlot> slots = new ArrayList<>(context.getAvailability());
+        slots.sort(null);
+
+        Map<Integer, StudyTask> pending = new HashMap<>();
+        for (StudyTask task : context.getPendingTasks()) {
+            pending.put(task.getId(), task);
+        }
+
+        // Dated blocks before this week are history and are left alone; undated ones belong to this week.
+        List<ScheduleBlock> ordered = new ArrayList<>();
+        for (ScheduleBlock block : existing) {
+            if (dayOrLast(block, weekStartDay) >= weekStartDay) ordered.add(block);
+        }
+        ordered.sort(Comparator.comparingInt((ScheduleBlock b) -> dayOrLast(b, weekStartDay))
+                .thenComparingInt(LocalScheduleEngine::startOrLast));
+        List<ScheduleBlock> kept = new ArrayList<>();
+        List<ScheduleBlock> removed = new ArrayList<>();
+        Map<Integer, Integer> coveredMinutes = new HashMap<>();
+        int lastKeptEnd = Integer.MIN_VALUE;
+        int lastKeptDay = WeekTime.UNSET;
+        AvailabilitySlot lastKeptSlot = null;
+        for (ScheduleBlock block : ordered) {
+            // Blocks that never matched a task are judged by their slot alone; a block whose source task
+            // is no longer pending belongs to a task that was completed or deleted.
+            boolean untracked = block.getTaskId() == WeekTime.UNSET;
+            StudyTask task = pending.get(block.getTaskId());
+            int day = dayOrLast(block, weekStartDay);
+            int start = startOrLast(block);
+            int end = start == Integer.MAX_VALUE ? start : block.getEndMinute();
+            AvailabilitySlot slot = (task == null && !untracked) || day == Integer.MAX_VALUE ? null : slotContaining(slots, start, end);
+            boolean valid;
+            if (untracked) {
+                valid = slot != null;
+            } else {
+                int needed = task == null ? 0 : taskMinutes(task) - coveredMinutes.getOrDefault(task.getId(), 0);
+                valid = slot != null
+                        && end - start <= blockCap
+                        && end - start <= needed
+                        && (task.getDeadlineDay() == WeekTime.UNSET || task.getDeadlineDay() < weekStartDay || day <= task.getDeadlineDay())
+                        && (slot != lastKeptSlot || day != lastKeptDay || start >= lastKeptEnd + breakLength);
+            }
+            if (valid) {
+                kept.add(block);
+                if (task != null) coveredMinutes.merge(task.getId(), end - start, Integer::sum);
+                lastKeptEnd = end;
+                lastKeptDay = day;
+                lastKeptSlot = slot;
+            } else {
+                removed.add(block);
+            }
+        }
+
+        // New blocks only go into this week; later weeks are filled when the horizon is extended.
+        List<ScheduleBlock> keptThisWeek = new ArrayList<>();
+        for (ScheduleBlock block : kept) {
+            if (block.dayIn(weekStartDay) < weekStartDay + 7) keptThisWeek.add(block);
+        }
+        List<ScheduleBlock> added = List.of();
+        List<WorkItem> queue = prioritise(context, weekStartDay, coveredMinutes);
+        if (!queue.isEmpty()) {
+            added = place(queue, freeGaps(slots, keptThisWeek, breakLength), weekStartDay, blockCap, breakLength);
+        }
+        return new ScheduleRepair(kept, removed, added);
+    }
+
+    // Greedy packing of the queue into the given intervals, in order, with a break after every block.
+    private List<ScheduleBlock> place(List<WorkItem> queue, List<AvailabilitySlot> intervals, int weekStartDay,
+                                      int blockCap, int breakLength) {
+        List<ScheduleBlock> blocks = new ArrayList<>();
+        WorkItem previous = null;
+        for (AvailabilitySlot slot : intervals) {
+            int slotDay = weekStartDay + slot.getStartMinute() / WeekTime.MINUTES_PER_DAY;
+            int cursor = slot.getStartMinute();
+            while (slot.getEndMinute() - cursor >= MIN_BLOCK_MINUTES) {
+                WorkItem item = pickNext(queue, slotDay, previous);
+                if (item == null) break;
+
+                int length = Math.min(Math.min(blockCap, item.remaining), slot.getEndMinute() - cursor);
+                // Don't leave a sliver of a task that would need a block shorter than the minimum.
+                int leftover = item.remaining - length;
+                if (leftover > 0 && leftover < MIN_BLOCK_MINUTES && length - (MIN_BLOCK_MINUTES - leftover) >= MIN_BLOCK_MINUTES) {
+                    length -= MIN_BLOCK_MINUTES - leftover;
+                }
+
+                blocks.add(ScheduleBlock.of(item.subjectName, item.task.getTitle(), cursor, cursor + length, item.task.getId())
+                        .onDay(slotDay));
+                item.remaining -= length;
+                if (item.remaining <= 0) queue.remove(item);
+                previous = item;
+                cursor += length + breakLength;
+            }
+            previous = null;
+        }
+        return blocks;
+    }
+
+    // The parts of each slot not taken by a kept block, leaving a break on either side of it.
+    private static List<AvailabilitySlot> freeGaps(List<AvailabilitySlot> slots, List<ScheduleBlock> kept, int breakLength) {
+        List<AvailabilitySlot> gaps = new ArrayList<>();
+        for (AvailabilitySlot slot : slots) {
+            int cursor = slot.getStartMinute();
+            for (ScheduleBlock block : kept) {
+                int start = block.getStartMinute();
+                if (start < slot.getStartMinute() || start >= slot.getEndMinute()) continue;
+                addGap(gaps, cursor, start - breakLength);
+                cursor = Math.max(cursor, block.getEndMinute() + breakLength);
+            }
+            addGap(gaps, cursor, slot.getEndMinute());
+        }
+        return gaps;
+    }
+
+    private static void addGap(List<AvailabilitySlot> gaps, int start, int end) {
+        if (end - start >= MIN_BLOCK_MINUTES) {
+            gaps.add(new AvailabilitySlot(WeekTime.UNSET, start, end));
+        }
+    }
+
+    private static AvailabilitySlot slotContaining(List<AvailabilitySlot> slots, int start, int end) {
+        for (AvailabilitySlot slot : slots) {
+            if (slot.getStartMinute() <= start && end <= slot.getEndMinute()) return slot;
+        }
+        return null;
+    }
+
+    // Blocks with an unreadable day sort last and are never kept.
+    private static int dayOrLast(ScheduleBlock block, int weekStartDay) {
+        try {
+            return block.dayIn(weekStartDay);
+        } catch (IllegalArgumentException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    // Blocks with unreadable times sort last and are never kept.
+    private static int startOrLast(ScheduleBlock block) {
+        try {
+            return block.getStartMinute();
+        } catch (IllegalArgumentException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /** Epoch-day of the Monday the plan starts on (see {@link WeekTime#upcomingWeekStart}). */
+    public int currentWeekStart() {
+        return WeekTime.upcomingWeekStart(LocalDate.now(clock));
+    }
+
+    private static int blockCap(SchedulingContext context) {
+        return Math.max(MIN_BLOCK_MINUTES, Math.min(MAX_BLOCK_MINUTES, context.getBreakFrequency()));
+    }
+
+    private static int breakLength(SchedulingContext context) {
+        return Math.max(0, context.getBreakLength());
+    }
+
+    private static int taskMinutes(StudyTask task) {
+        return task.getDurationMinutes() == WeekTime.UNSET ? DEFAULT_TASK_MINUTES : task.getDurationMinutes();
+    }
+
+    // Orders tasks by urgency (deadline or exam, whichever is sooner), then difficulty, then size.
+    // Minutes already covered by kept blocks are subtracted; fully covered tasks are left out.
+    private List<WorkItem> prioritise(SchedulingContext context, int weekStartDay, Map<Integer, Integer> coveredMinutes) {
+        Map<Integer, Subject> subjectsById = new HashMap<>();
+        for (Subject subject : context.getSubjects()) {
+            subjectsById.put(subject.getId(), subject);
+        }
+
+        List<WorkItem> items = new ArrayList<>();
+        for (StudyTask task : context.getPendingTasks()) {
+            Subject subject = subjectsById.get(task.getSubjectId());
+            int examDay = subject == null ? WeekTime.UNSET : WeekTime.epochDay(subject.getExamDate());
+            int dueDay = earliest(task.getDeadlineDay(), examDay);
+            int difficulty = subject == null ? 0 : subject.getDifficulty();
+            int minutes = taskMinutes(task) - coveredMinutes.getOrDefault(task.getId(), 0);
+            if (minutes <= 0) continue;
+            String subjectName = task.getSubjectName() != null ? task.getSubjectName()
+                    : subject != null ? subject.getName() : "General";
+
+            // Overdue work has no placement constraint; it simply goes first.
+            int latestDay = task.getDeadlineDay() == WeekTime.UNSET || task.getDeadlineDay() < weekStartDay
+                    ? Integer.MAX_VALUE : task.getDeadlineDay();
+            items.add(new WorkItem(task, subjectName, dueDay == WeekTime.UNSET ? Integer.MAX_VALUE : dueDay, latestDay, difficulty, minutes));
+        }
+
+        items.sort(Comparator.comparingInt((WorkItem w) -> w.dueDay)
+                .thenComparing(Comparator.comparingInt((WorkItem w) -> w.difficulty).reversed())
+                .thenComparing(Comparator.comparingInt((WorkItem w) -> w.remaining).reversed()));
+        return items;
+    }
+
+    // Highest-priority task that may still be placed on this day, preferring not to repeat the previous block.
+    private static WorkItem pickNext(List<WorkItem> queue, int slotDay, WorkItem previous) {
+        WorkItem fallback = null;
+        for (WorkItem item : queue) {
+            if (slotDay > item.latestDay) continue;
+            if (item != previous) return item;
+            fallback = item;
+        }
+        return fallback;
+    }
+
+    private static int earliest(int a, int b) {
+        if (a == WeekTime.UNSET) return b;
+        if (b == WeekTime.UNSET) return a;
+        return Math.min(a, b);
+    }
+
+    /** Mutable planning state for one task. */
+    private static final class WorkItem {
+        private final StudyTask task;
+        private final String subjectName;
+        private final int dueDay;
+        private final int latestDay;
+        private final int difficulty;
+        private int remaining;
+
+        private WorkItem(StudyTask task, String subjectName, int dueDay, int latestDay, int difficulty, int remaining) {
+            this.task = task;
+            this.subjectName = subjectName;
+            this.dueDay = dueDay;
+            this.latestDay = latestDay;
+            this.difficulty = difficulty;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.Subject;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the scheduling prompt in a compact, tabular form under a token budget.
+ * <p>
+ * The request opens with the date of the week being planned. Subjects, tasks and slots are written as
+ * pipe-separated rows under a single header each, tasks refer to subjects by row number, and touching
+ * or overlapping availability slots are merged. When the rows would exceed the budget, the least
+ * urgent tasks (latest deadline, then easiest subject) are left out and the model is told how many
+ * were omitted. Token counts are estimated at four characters per token.
+ */
+public final class PromptBuilder {
+
+    /** Budget for the user query; -Dacadia.prompt.tokenBudget overrides it. */
+    public static final int DEFAULT_TOKEN_BUDGET = 3000;
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final int tokenBudget;
+
+    public PromptBuilder(int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    public static PromptBuilder fromSystemProperties() {
+        return new PromptBuilder(Integer.getInteger("acadia.prompt.tokenBudget", DEFAULT_TOKEN_BUDGET));
+    }
+
+    /**
+     * A finished prompt and how much compaction saved.
+     */
+    public static final class Prompt {
+        private final String systemInstruction;
+        private final String userQuery;
+        private final Metrics metrics;
+
+        private Prompt(String systemInstruction, String userQuery, Metrics metrics) {
+            this.systemInstruction = systemInstruction;
+            this.userQuery = userQuery;
+            this.metrics = metrics;
+        }
+
+        public String getSystemInstruction() { return systemInstruction; }
+        public String getUserQuery() { return userQuery; }
+        public Metrics getMetrics() { return metrics; }
+    }
+
+    /**
+     * Prompt size before compaction (every row in the original record format) and after.
+     */
+    public static final class Metrics {
+        private final int verboseChars;
+        private final int compactChars;
+        private final int tasksIncluded;
+        private final int tasksOmitted;
+        private final int slotsBefore;
+        private final int slotsAfter;
+
+        Metrics(int verboseChars, int compactChars, int tasksIncluded, int tasksOmitted, int slotsBefore, int slotsAfter) {
+            this.verboseChars = verboseChars;
+            this.compactChars = compactChars;
+            this.tasksIncluded = tasksIncluded;
+            this.tasksOmitted = tasksOmitted;
+            this.slotsBefore = slotsBefore;
+            this.slotsAfter = slotsAfter;
+        }
+
+        public int getVerboseChars() { return verboseChars; }
+        public int getCompactChars() { return compactChars; }
+        public int getVerboseTokens() { return estimateTokens(verboseChars); }
+        public int getCompactTokens() { return estimateTokens(compactChars); }
+        public int getTasksIncluded() { return tasksIncluded; }
+        public int getTasksOmitted() { return tasksOmitted; }
+        public int getSlotsBefore() { return slotsBefore; }
+        public int getSlotsAfter() { return slotsAfter; }
+
+        @Override
+        public String toString() {
+            return String.format("Prompt: ~%d -> ~%d tokens (%d -> %d chars), tasks %d included / %d omitted, slots %d -> %d",
+                    getVerboseTokens(), getCompactTokens(), verboseChars, compactChars, tasksIncluded, tasksOmitted, slotsBefore, slotsAfter);
+        }
+    }
+
+    /**
+     * @param draft a locally computed schedule for the model to refine, or null to plan from scratch
+     */
+    public Prompt build(SchedulingContext context, List<ScheduleBlock> draft) {
+        List<Subject> subjects = new ArrayList<>(context.getSubjects());
+        subjects.sort(Comparator.comparing(Subject::getName, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingInt(Subject::getId));
+        Map<Integer, Integer> subjectRow = new HashMap<>();
+        Map<Integer, Integer> difficulty = new HashMap<>();
+        StringBuilder subjectRows = new StringBuilder("SUBJECTS (#|name|difficulty|exam)\n");
+        for (int i = 0; i < subjects.size(); i++) {
+            Subject s = subjects.get(i);
+            subjectRow.put(s.getId(), i + 1);
+            difficulty.put(s.getId(), s.getDifficulty());
+            subjectRows.append(i + 1).append('|').append(cell(s.getName())).append('|').append(s.getDifficulty())
+                    .append('|').append(s.getExamDate() == null ? "-" : s.getExamDate()).append('\n');
+        }
+
+        List<AvailabilitySlot> merged = mergeSlots(context.getAvailability());
+        StringBuilder slotRows = new StringBuilder("SLOTS (day start-end), the ONLY times that may be used\n");
+        for (AvailabilitySlot slot : merged) {
+            slotRows.append(slot.getDay()).append(' ').append(slot.getStartTime()).append('-').append(slot.getEndTime()).append('\n');
+        }
+
+        StringBuilder draftRows = new StringBuilder();
+        if (draft != null) {
+            draftRows.append("DRAFT (day|start|end|task|subject), already satisfies slots, block length and breaks\n");
+            for (ScheduleBlock b : draft) {
+                draftRows.append(b.getDay()).append('|').append(b.getTimeStart()).append('|').append(b.getTimeEnd()).append('|')
+                        .append(cell(b.getTaskTitle())).append('|').append(cell(b.getSubjectName())).append('\n');
+            }
+        }
+
+        // The week is part of the request, so a cached answer is never reused for a different week.
+        String week = "WEEK of Monday " + WeekTime.formatDate(context.getWeekStartDay()) + "\n";
+        String instructions = draft == null
+                ? "Plan that week using only the SLOTS. Blocks must be under 120 minutes. Output a JSON array."
+                : "Improve the DRAFT (ordering, spacing of difficult subjects, proximity to deadlines) keeping every constraint. Output a JSON array.";
+
+        // Tasks fill whatever budget the fixed sections leave, most urgent first.
+        List<StudyTask> tasks = new ArrayList<>(context.getPendingTasks());
+        tasks.sort(Comparator.comparingInt((StudyTask t) -> t.getDeadlineDay() == WeekTime.UNSET ? Integer.MAX_VALUE : t.getDeadlineDay())
+                .thenComparing(Comparator.comparingInt((StudyTask t) -> difficulty.getOrDefault(t.getSubjectId(), 0)).reversed())
+                .thenComparingInt(StudyTask::getId));
+        int fixedChars = week.length() + subjectRows.length() + slotRows.length() + draftRows.length() + instructions.length() + 160;
+        int taskBudget = tokenBudget * CHARS_PER_TOKEN - fixedChars;
+        StringBuilder taskRows = new StringBuilder("TASKS (title|subject #|type|minutes|deadline), most urgent first\n");
+        int included = 0;
+        for (StudyTask t : tasks) {
+            String row = cell(t.getTitle()) + '|' + (subjectRow.containsKey(t.getSubjectId()) ? subjectRow.get(t.getSubjectId()) : "-") + '|'
+                    + cell(t.getTaskType()) + '|' + (t.getDurationMinutes() == WeekTime.UNSET ? "?" : t.getDurationMinutes()) + '|'
+                    + (t.getDeadlineDay() == WeekTime.UNSET ? "-" : t.getDeadlineDate()) + '\n';
+            // The most urgent task is always sent, even if the fixed sections alone use up the budget.
+            if (included > 0 && taskRows.length() + row.length() > taskBudget) break;
+            taskRows.append(row);
+            included++;
+        }
+        int omitted = tasks.size() - included;
+        if (omitted > 0) {
+            taskRows.append("(").append(omitted).append(" later tasks omitted; schedule only the tasks listed)\n");
+        }
+
+        String userQuery = week + subjectRows + taskRows + slotRows + draftRows + instructions;
+        String systemInstruction = buildSystemInstruction(context);
+        Metrics metrics = new Metrics(verboseLength(context, draft) + systemInstruction.length(),
+                userQuery.length() + systemInstruction.length(), included, omitted,
+                context.getAvailability().size(), merged.size());
+        return new Prompt(systemInstruction, userQuery, metrics);
+    }
+
+    private static String buildSystemInstruction(SchedulingContext context) {
+        return String.format(
+                "You are an expert academic scheduling AI. Create an optimized weekly study schedule. " +
+                        "Prioritize tasks by deadline, difficulty and duration. User preference: %s. " +
+                        "Separate study blocks by a %d-minute break after every %d minutes of focused study. " +
+                        "Inputs are pipe-separated tables; the output MUST be a JSON array of scheduled blocks.",
+                context.getLearningPreferences(), context.getBreakLength(), context.getBreakFrequency()
+        );
+    }
+
+    /**
+     * Merges slots that touch or overlap into one, in time order. Slots never span midnight, so
+     * merging never joins two different days.
+     */
+    static List<AvailabilitySlot> mergeSlots(List<AvailabilitySlot> slots) {
+        List<AvailabilitySlot> sorted = new ArrayList<>(slots);
+        sorted.sort(null);
+        List<AvailabilitySlot> merged = new ArrayList<>();
+        for (AvailabilitySlot slot : sorted) {
+            AvailabilitySlot last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && slot.getStartMinute() <= last.getEndMinute()
+                    && slot.getStartMinute() / WeekTime.MINUTES_PER_DAY == last.getStartMinute() / WeekTime.MINUTES_PER_DAY) {
+                merged.set(merged.size() - 1, new AvailabilitySlot(WeekTime.UNSET, last.getStartMinute(),
+                        Math.max(last.getEndMinute(), slot.getEndMinute())));
+            } else {
+                merged.add(slot);
+            }
+        }
+        return merged;
+    }
+
+    // Size of the original "{Key: value, ...}" record encoding of the same inputs, for the metrics only.
+    private static int verboseLength(SchedulingContext context, List<ScheduleBlock> draft) {
+        int length = 400; // headers and instructions of the original prompt
+        for (Subject s : context.getSubjects()) {
+            length += String.format("{Name: %s, Difficulty: %d, Exam: %s}; ", s.getName(), s.getDifficulty(), s.getExamDate()).length();
+        }
+        for (StudyTask t : context.getPendingTasks()) {
+            length += String.format("{Title: %s, Subject: %s, Type: %s, Duration: %s, Deadline: %s}; ",
+                    t.getTitle(), t.getSubjectName(), t.getTaskType(), t.getDurationEstimate(), t.getDeadlineDate()).length();
+        }
+        for (AvailabilitySlot a : context.getAvailability()) {
+            length += String.format("{Day: %s, Start: %s, End: %s}; ", a.getDay(), a.getStartTime(), a.getEndTime()).length();
+        }
+        if (draft != null) {
+            for (ScheduleBlock b : draft) {
+                length += String.format("{Day: %s, Start: %s, End: %s, Task: %s, Subject: %s}; ",
+                        b.getDay(), b.getTimeStart(), b.getTimeEnd(), b.getTaskTitle(), b.getSubjectName()).length();
+            }
+        }
+        return length;
+    }
+
+    // Keeps user text from breaking the table layout.
+    private static String cell(String value) {
+        return value == null ? "-" : value.replace('|', '/').replace('\n', ' ').replace('\r', ' ').trim();
+    }
+
+    static int estimateTokens(int chars) {
+        return (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
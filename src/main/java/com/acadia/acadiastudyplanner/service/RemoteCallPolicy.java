@@ -0,0 +1,83 @@
+package com.acadia.acadiastudyplanner.service;
+
+import java.time.Duration;
+
+/**
+ * Timeouts, retry, hedging and circuit-breaker limits for calls to the model endpoint.
+ * The defaults can be overridden with system properties (acadia.remote.connectTimeoutSeconds,
+ * acadia.remote.requestTimeoutSeconds, acadia.remote.bodyIdleTimeoutSeconds, acadia.remote.maxAttempts,
+ * acadia.remote.backoffMillis, acadia.remote.maxBackoffMillis, acadia.remote.hedgePercentile,
+ * acadia.remote.breakerThreshold, acadia.remote.breakerOpenSeconds).
+ */
+public final class RemoteCallPolicy {
+
+    /**
+     * Three attempts with 0.5s..8s jittered backoff, no hedging, a body that may go quiet for at most
+     * 30 seconds, and a breaker that opens for 30 seconds after five consecutive failures.
+     */
+    public static final RemoteCallPolicy DEFAULT = new RemoteCallPolicy(
+            Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ofSeconds(30), 3, 500, 8_000, 0, 5, Duration.ofSeconds(30));
+
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final Duration bodyIdleTimeout;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final int hedgePercentile;
+    private final int breakerThreshold;
+    private final Duration breakerOpenDuration;
+
+    /**
+     * @param requestTimeout  limit on waiting for response headers; a streamed body may take longer
+     * @param bodyIdleTimeout  limit on a single read of the response body, so a stream that stops
+     *                        sending fails instead of blocking its reader forever
+     * @param hedgePercentile send a duplicate request once an attempt is slower than this percentile
+     *                        of recent response latencies; 0 disables hedging
+     */
+    public RemoteCallPolicy(Duration connectTimeout, Duration requestTimeout, Duration bodyIdleTimeout, int maxAttempts,
+                            long backoffMillis, long maxBackoffMillis, int hedgePercentile, int breakerThreshold,
+                            Duration breakerOpenDuration) {
+        this.connectTimeout = connectTimeout;
+        this.requestTimeout = requestTimeout;
+        this.bodyIdleTimeout = bodyIdleTimeout;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.hedgePercentile = hedgePercentile;
+        this.breakerThreshold = breakerThreshold;
+        this.breakerOpenDuration = breakerOpenDuration;
+    }
+
+    public static RemoteCallPolicy fromSystemProperties() {
+        RemoteCallPolicy base = DEFAULT;
+        return new RemoteCallPolicy(
+                Duration.ofSeconds(Long.getLong("acadia.remote.connectTimeoutSeconds", base.connectTimeout.toSeconds())),
+                Duration.ofSeconds(Long.getLong("acadia.remote.requestTimeoutSeconds", base.requestTimeout.toSeconds())),
+                Duration.ofSeconds(Long.getLong("acadia.remote.bodyIdleTimeoutSeconds", base.bodyIdleTimeout.toSeconds())),
+                Integer.getInteger("acadia.remote.maxAttempts", base.maxAttempts),
+                Long.getLong("acadia.remote.backoffMillis", base.backoffMillis),
+                Long.getLong("acadia.remote.maxBackoffMillis", base.maxBackoffMillis),
+                Integer.getInteger("acadia.remote.hedgePercentile", base.hedgePercentile),
+                Integer.getInteger("acadia.remote.breakerThreshold", base.breakerThreshold),
+                Duration.ofSeconds(Long.getLong("acadia.remote.breakerOpenSeconds", base.breakerOpenDuration.toSeconds()))
+        );
+    }
+
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public Duration getRequestTimeout() { return requestTimeout; }
+    public Duration getBodyIdleTimeout() { return bodyIdleTimeout; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public long getBackoffMillis() { return backoffMillis; }
+    public long getMaxBackoffMillis() { return maxBackoffMillis; }
+    public int getHedgePercentile() { return hedgePercentile; }
+    public int getBreakerThreshold() { return breakerThreshold; }
+    public Duration getBreakerOpenDuration() { return breakerOpenDuration; }
+
+    @Override
+    public String toString() {
+        return String.format("RemoteCallPolicy[connect=%s, request=%s, bodyIdle=%s, attempts=%d, backoff=%d..%dms, hedge=p%d, breaker=%d/%s]",
+                connectTimeout, requestTimeout, bodyIdleTimeout, maxAttempts, backoffMillis, maxBackoffMillis, hedgePercentile,
+                breakerThreshold, breakerOpenDuration);
+    }
+}
@@ -0,0 +1,262 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Schedules through the Gemini API. Requires network access and the GEMINI_API_KEY environment variable.
+ */
+public class RemoteScheduleEngine implements ScheduleEngine {
+
+    // IMPORTANT: Load the API key from an environment variable for security
+    private static final String API_KEY = System.getenv("GEMINI_API_KEY");
+    private static final String MODEL = "gemini-1.5-flash";
+    private static final String API_URL = "https://generativelanguage.googleapis.com/v1beta/models/" + MODEL + ":streamGenerateContent?alt=sse&key=" + API_KEY;
+    private static final ResilientHttpClient HTTP_CLIENT = new ResilientHttpClient(RemoteCallPolicy.fromSystemProperties());
+    // Prompts are plain text; HTML-safe escaping of <, > and = would only make the request larger.
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final ScheduleResponseCache CACHE = ScheduleResponseCache.fromSystemProperties();
+    private static final PromptBuilder PROMPTS = PromptBuilder.fromSystemProperties();
+    private static final AtomicReference<PromptBuilder.Metrics> LAST_PROMPT = new AtomicReference<>();
+    // Shared by every payload; serialising a tree never modifies it.
+    private static final JsonObject RESPONSE_SCHEMA = JsonParser.parseString("""
+            {
+              "type": "ARRAY",
+              "items": {
+                "type": "OBJECT",
+                "properties": {
+                  "day": {"type": "STRING", "description": "MON, TUE, WED, etc."},
+                  "subject_name": {"type": "STRING"},
+                  "task_title": {"type": "STRING"},
+                  "time_start": {"type": "STRING", "description": "HH:MM format"},
+                  "time_end": {"type": "STRING", "description": "HH:MM format"}
+                },
+                "required": ["day", "subject_name", "task_title", "time_start", "time_end"]
+              }
+            }
+            """).getAsJsonObject();
+
+    public RemoteScheduleEngine() {
+        if (!isConfigured()) {
+            throw new IllegalStateException("GEMINI_API_KEY environment variable not set.");
+        }
+    }
+
+    public static boolean isConfigured() {
+        return API_KEY != null && !API_KEY.isBlank();
+    }
+
+    /** The shared response cache, exposed for its hit/miss counters. */
+    public static ScheduleResponseCache getCache() {
+        return CACHE;
+    }
+
+    /** Size metrics of the most recent prompt, or null if none has been built yet. */
+    public static PromptBuilder.Metrics getLastPromptMetrics() {
+        return LAST_PROMPT.get();
+    }
+
+    /** The shared HTTP client, exposed for its breaker state and retry counters. */
+    public static ResilientHttpClient getHttpClient() {
+        return HTTP_CLIENT;
+    }
+
+    @Override
+    public List<ScheduleBlock> generate(SchedulingContext context) throws IOException, InterruptedException {
+        return generate(context, block -> {});
+    }
+
+    @Override
+    public List<ScheduleBlock> generate(SchedulingContext context, Consumer<ScheduleBlock> onBlock) throws IOException, InterruptedException {
+        return request(context, PROMPTS.build(context, null), onBlock);
+    }
+
+    /**
+     * Non-blocking variant built on {@link ResilientHttpClient#sendAsync}. Cancelling the returned future, or
+     * letting a timeout complete it, closes the HTTP exchange and stops the stream parser.
+     */
+    @Override
+    public CompletableFuture<List<ScheduleBlock>> generateAsync(SchedulingContext context, Consumer<ScheduleBlock> onBlock,
+                                                               Executor executor) {
+        return requestAsync(context, PROMPTS.build(context, null), onBlock, executor);
+    }
+
+    /**
+     * Asks the model to improve a locally computed draft instead of planning from scratch.
+     */
+    public List<ScheduleBlock> refine(SchedulingContext context, List<ScheduleBlock> draft) throws IOException, InterruptedException {
+        return refine(context, draft, block -> {});
+    }
+
+    public List<ScheduleBlock> refine(SchedulingContext context, List<ScheduleBlock> draft, Consumer<ScheduleBlock> onBlock)
+            throws IOException, InterruptedException {
+        return request(context, PROMPTS.build(context, draft), onBlock);
+    }
+
+    public CompletableFuture<List<ScheduleBlock>> refineAsync(SchedulingContext context, List<ScheduleBlock> draft,
+                                                             Consumer<ScheduleBlock> onBlock, Executor executor) {
+        return requestAsync(context, PROMPTS.build(context, draft), onBlock, executor);
+    }
+
+    private List<ScheduleBlock> request(SchedulingContext context, PromptBuilder.Prompt prompt, Consumer<ScheduleBlock> onBlock)
+            throws IOException, InterruptedException {
+        String jsonPayload = payloadFor(prompt);
+        String cacheKey = cacheKey(jsonPayload);
+        List<ScheduleBlock> cached = cachedBlocks(cacheKey, onBlock);
+        if (cached != null) {
+            return cached;
+        }
+
+        // The body is consumed as it arrives: each block reaches onBlock while later ones are still being generated.
+        HttpResponse<InputStream> response = HTTP_CLIENT.send(buildRequest(jsonPayload));
+        try (InputStream body = response.body()) {
+            return readResponse(context.getUserId(), cacheKey, response.statusCode(), body, onBlock);
+        }
+    }
+
+    private CompletableFuture<List<ScheduleBlock>> requestAsync(SchedulingContext context, PromptBuilder.Prompt prompt,
+                                                               Consumer<ScheduleBlock> onBlock, Executor executor) {
+        String jsonPayload = payloadFor(prompt);
+        String cacheKey = cacheKey(jsonPayload);
+        CompletableFuture<List<ScheduleBlock>> result = new CompletableFuture<>();
+        // Blocks are only forwarded while the caller is still interested.
+        Consumer<ScheduleBlock> forward = block -> {
+            if (!result.isDone()) onBlock.accept(block);
+        };
+
+        executor.execute(() -> {
+            try {
+                if (result.isDone()) return;
+                List<ScheduleBlock> cached = cachedBlocks(cacheKey, forward);
+                if (cached != null) {
+                    result.complete(cached);
+                    return;
+                }
+                CompletableFuture<HttpResponse<InputStream>> exchange = HTTP_CLIENT.sendAsync(buildRequest(jsonPayload));
+                // Cancelling the exchange stops pending retries and closes the connection in flight.
+                result.whenComplete((blocks, error) -> {
+                    if (error != null) exchange.cancel(true);
+                });
+                // Reading the body blocks, so it happens on the caller's executor rather than the client's.
+                exchange.whenCompleteAsync((response, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                        return;
+                    }
+                    try (InputStream body = response.body()) {
+                        result.whenComplete((blocks, failure) -> {
+                            if (failure != null) closeQuietly(body); // unblocks a parser waiting on the next event
+                        });
+                        result.complete(readResponse(context.getUserId(), cacheKey, response.statusCode(), body, forward));
+                    } catch (IOException | RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }, executor);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private static String payloadFor(PromptBuilder.Prompt prompt) {
+        LAST_PROMPT.set(prompt.getMetrics());
+        return buildJsonPayload(prompt);
+    }
+
+    // The payload is built from canonically ordered inputs, so identical data yields an identical key.
+    private static String cacheKey(String jsonPayload) {
+        return ScheduleResponseCache.fingerprint(MODEL + "\n" + jsonPayload);
+    }
+
+    /** @return the cached schedule after replaying it to {@code onBlock}, or null on a miss. */
+    private static List<ScheduleBlock> cachedBlocks(String cacheKey, Consumer<ScheduleBlock> onBlock) {
+        String cached = CACHE.get(cacheKey);
+        if (cached == null) {
+            return null;
+        }
+        List<ScheduleBlock> blocks = Arrays.asList(GSON.fromJson(cached, ScheduleBlock[].class));
+        blocks.forEach(onBlock);
+        return blocks;
+    }
+
+    private static HttpRequest buildRequest(String jsonPayload) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(API_URL))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
+                .build();
+    }
+
+    private static List<ScheduleBlock> readResponse(int userId, String cacheKey, int statusCode, InputStream body,
+                                                    Consumer<ScheduleBlock> onBlock) throws IOException {
+        if (statusCode != 200) {
+            String error = new String(body.readNBytes(ResilientHttpClient.MAX_ERROR_BODY), StandardCharsets.UTF_8);
+            throw new IOException("Gemini API call failed with status: " + statusCode + ". Response body: " + error);
+        }
+        List<ScheduleBlock> blocks = new ArrayList<>();
+        ScheduleStreamParser.parse(body, block -> {
+            blocks.add(block);
+            onBlock.accept(block);
+        });
+        CACHE.put(cacheKey, userId, GSON.toJson(blocks));
+        return blocks;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // Already failing or cancelled; nothing useful to report.
+        }
+    }
+
+    /**
+     * The request body for a prompt. It is serialised as a JSON tree, so every character of the prompt is
+     * escaped, including tabs and other control characters typed into the learning preferences. Public so
+     * the benchmark module can measure serialisation on its own.
+     */
+    public static String buildJsonPayload(PromptBuilder.Prompt prompt) {
+        JsonArray contents = new JsonArray();
+        contents.add(textContent(prompt.getUserQuery()));
+
+        JsonObject generationConfig = new JsonObject();
+        generationConfig.addProperty("responseMimeType", "application/json");
+        generationConfig.add("responseSchema", RESPONSE_SCHEMA);
+
+        JsonObject payload = new JsonObject();
+        payload.add("contents", contents);
+        payload.add("systemInstruction", textContent(prompt.getSystemInstruction()));
+        payload.add("generationConfig", generationConfig);
+        return GSON.toJson(payload);
+    }
+
+    // {"parts": [{"text": ...}]}
+    private static JsonObject textContent(String text) {
+        JsonObject part = new JsonObject();
+        part.addProperty("text", text);
+        JsonArray parts = new JsonArray();
+        parts.add(part);
+        JsonObject content = new JsonObject();
+        content.add("parts", parts);
+        return content;
+    }
+}
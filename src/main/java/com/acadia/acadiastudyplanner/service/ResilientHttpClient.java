@@ -0,0 +1,254 @@
+package com.acadia.acadiastudyplanner.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP client for the model endpoint that streams response bodies and tolerates a flaky upstream.
+ * <ul>
+ *   <li>Connect and response-header timeouts from the {@link RemoteCallPolicy}, and an idle timeout on
+ *       every read of the response body, so a stalled stream fails instead of hanging its reader.</li>
+ *   <li>I/O errors, 429 and 5xx responses are retried with jittered exponential backoff, honouring
+ *       Retry-After up to the maximum backoff.</li>
+ *   <li>Optionally, an attempt slower than a percentile of recent latencies gets a hedged duplicate;
+ *       whichever responds first wins and the other is cancelled.</li>
+ *   <li>A circuit breaker fails calls fast with {@link CircuitOpenException} while the endpoint is
+ *       unhealthy. It is an IOException, so HYBRID scheduling falls back to the local draft.</li>
+ * </ul>
+ * Only the first {@value #MAX_ERROR_BODY} bytes of an error body are ever read.
+ */
+public class ResilientHttpClient {
+
+    static final int MAX_ERROR_BODY = 2048;
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    private final HttpClient client;
+    private final RemoteCallPolicy policy;
+    private final CircuitBreaker breaker;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ResilientHttpClient(RemoteCallPolicy policy) {
+        this(HttpClient.newBuilder().connectTimeout(policy.getConnectTimeout()).build(), policy);
+    }
+
+    ResilientHttpClient(HttpClient client, RemoteCallPolicy policy) {
+        this.client = client;
+        this.policy = policy;
+        this.breaker = new CircuitBreaker(policy.getBreakerThreshold(), policy.getBreakerOpenDuration());
+    }
+
+    /** Thrown without contacting the endpoint while the circuit breaker is open. */
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Blocking form of {@link #sendAsync(HttpRequest)}; interrupting the caller cancels the call.
+     */
+    public HttpResponse<InputStream> send(HttpRequest request) throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<InputStream>> future = sendAsync(request);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Completes with the first response that is not retryable: a success, or a client error the caller
+     * should report. When every attempt fails, completes exceptionally with the last IOException.
+     * Cancelling the returned future cancels the attempt in flight and any pending retry.
+     */
+    public CompletableFuture<HttpResponse<InputStream>> sendAsync(HttpRequest request) {
+        CompletableFuture<HttpResponse<InputStream>> result = new CompletableFuture<>();
+        if (!breaker.allowRequest()) {
+            rejected.incrementAndGet();
+            result.completeExceptionally(new CircuitOpenException("Model endpoint is unavailable; retrying after "
+                    + policy.getBreakerOpenDuration().toSeconds() + "s."));
+            return result;
+        }
+        HttpRequest timed = HttpRequest.newBuilder(request, (name, value) -> true)
+                .timeout(policy.getRequestTimeout())
+                .build();
+        attempt(timed, 1, result);
+        return result;
+    }
+
+    private void attempt(HttpRequest request, int attempt, CompletableFuture<HttpResponse<InputStream>> result) {
+        if (result.isDone()) return;
+        CompletableFuture<HttpResponse<InputStream>> exchange = hedgedExchange(request);
+        result.whenComplete((response, error) -> {
+            if (error != null) exchange.cancel(true);
+        });
+        exchange.whenComplete((response, error) -> {
+            if (result.isDone()) { // cancelled or timed out by the caller meanwhile
+                if (response != null) closeQuietly(response.body());
+                return;
+            }
+            Throwable failure = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (failure instanceof CancellationException) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (failure != null && !(failure instanceof IOException)) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (failure == null && !isRetryable(response.statusCode())) {
+                breaker.recordSuccess();
+                if (!result.complete(response)) closeQuietly(response.body());
+                return;
+            }
+
+            breaker.recordFailure();
+            IOException cause = failure != null ? (IOException) failure : statusFailure(response);
+            if (attempt >= policy.getMaxAttempts() || !breaker.allowRequest()) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            retries.incrementAndGet();
+            long delay = backoffMillis(attempt, response);
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                    .execute(() -> attempt(request, attempt + 1, result));
+        });
+    }
+
+    /**
+     * Sends the request and, if hedging is enabled and enough latencies have been observed, races a
+     * duplicate once the first attempt is slower than the configured percentile.
+     */
+    private CompletableFuture<HttpResponse<InputStream>> hedgedExchange(HttpRequest request) {
+        CompletableFuture<HttpResponse<InputStream>> winner = new CompletableFuture<>();
+        List<CompletableFuture<HttpResponse<InputStream>>> racers = new CopyOnWriteArrayList<>();
+        race(request, winner, racers);
+
+        long hedgeDelay = hedgeDelayMillis();
+        if (hedgeDelay >= 0) {
+            CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.MILLISECONDS).execute(() -> {
+                if (winner.isDone()) return;
+                hedges.incrementAndGet();
+                race(request, winner, racers);
+            });
+        }
+        // Whatever decides the winner (a response, a failure, or cancellation) abandons the rest.
+        winner.whenComplete((response, error) -> racers.forEach(racer -> racer.cancel(true)));
+        return winner;
+    }
+
+    private void race(HttpRequest request, CompletableFuture<HttpResponse<InputStream>> winner,
+                      List<CompletableFuture<HttpResponse<InputStream>>> racers) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<InputStream>> exchange = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        racers.add(exchange);
+        exchange.whenComplete((response, error) -> {
+            if (error == null) {
+                recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                // Wrapped here, so reading an error body for a retry decision is bounded too.
+                HttpResponse<InputStream> timed = IdleTimeoutInputStream.wrap(response, policy.getBodyIdleTimeout());
+                if (!winner.complete(timed)) closeQuietly(timed.body());
+            } else if (racers.stream().allMatch(CompletableFuture::isDone)) {
+                winner.completeExceptionally(error);
+            }
+        });
+    }
+
+    static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    // Reads a bounded prefix of the error body so a large error page is never buffered in full.
+    private static IOException statusFailure(HttpResponse<InputStream> response) {
+        String body;
+        try (InputStream stream = response.body()) {
+            body = new String(stream.readNBytes(MAX_ERROR_BODY), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            body = "<unreadable: " + e.getMessage() + ">";
+        }
+        return new IOException("Gemini API call failed with status: " + response.statusCode() + ". Response body: " + body);
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half the capped delay is fixed, half random, so
+     * concurrent clients spread out without any of them retrying immediately.
+     */
+    private long backoffMillis(int attempt, HttpResponse<InputStream> response) {
+        long cap = Math.min(policy.getMaxBackoffMillis(), policy.getBackoffMillis() << Math.min(attempt - 1, 20));
+        long delay = cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+        if (response != null) {
+            long retryAfter = response.headers().firstValue("Retry-After").map(ResilientHttpClient::parseSeconds).orElse(-1L);
+            if (retryAfter > 0) {
+                delay = Math.max(delay, Math.min(TimeUnit.SECONDS.toMillis(retryAfter), policy.getMaxBackoffMillis()));
+            }
+        }
+        return delay;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1; // HTTP-date form is not worth supporting for a backoff hint
+        }
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[latencyCount++ % LATENCY_SAMPLES] = millis;
+    }
+
+    /** @return the hedge delay for the configured percentile, or -1 when hedging is off or under-sampled. */
+    synchronized long hedgeDelayMillis() {
+        int percentile = policy.getHedgePercentile();
+        int samples = Math.min(latencyCount, LATENCY_SAMPLES);
+        if (percentile <= 0 || samples < MIN_HEDGE_SAMPLES) return -1;
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        int index = Math.min(samples - 1, (int) Math.ceil(percentile / 100.0 * samples) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // The response is being discarded anyway.
+        }
+    }
+
+    public String getBreakerState() { return breaker.getState().name(); }
+    public long getRetries() { return retries.get(); }
+    public long getHedges() { return hedges.get(); }
+    public long getRejected() { return rejected.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("ResilientHttpClient[breaker=%s, retries=%d, hedges=%d, rejected=%d, %s]",
+                breaker.getState(), retries.get(), hedges.get(), rejected.get(), policy);
+    }
+}
@@ -0,0 +1,49 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Produces a weekly study plan from a user's tasks, subjects and availability.
+ */
+public interface ScheduleEngine {
+
+    List<ScheduleBlock> generate(SchedulingContext context) throws IOException, InterruptedException;
+
+    /**
+     * Same as {@link #generate(SchedulingContext)}, additionally handing each block to {@code onBlock}
+     * as soon as it is known. Engines that produce their result incrementally override this;
+     * the default simply replays the finished list.
+     */
+    default List<ScheduleBlock> generate(SchedulingContext context, Consumer<ScheduleBlock> onBlock)
+            throws IOException, InterruptedException {
+        List<ScheduleBlock> blocks = generate(context);
+        blocks.forEach(onBlock);
+        return blocks;
+    }
+
+    /**
+     * Runs the engine without blocking the caller. Cancelling the returned future should abandon
+     * any I/O still in flight; the default runs {@link #generate(SchedulingContext, Consumer)} on
+     * {@code executor}, which is enough for engines that never wait on the network.
+     */
+    default CompletableFuture<List<ScheduleBlock>> generateAsync(SchedulingContext context, Consumer<ScheduleBlock> onBlock,
+                                                               Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return generate(context, onBlock);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,140 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Per-user single-flight registry for schedule generations.
+ * <p>
+ * At most one generation runs per user. A caller asking for the same input fingerprint as the running
+ * one joins it: it is replayed the blocks streamed so far and then sees the rest live. A caller with a
+ * different fingerprint supersedes the running generation, which is cancelled because its inputs are
+ * stale. Each caller gets its own future; cancelling it only detaches that caller, and the shared work
+ * is cancelled once nobody is waiting for it.
+ * <p>
+ * The persistent response cache already de-duplicates generations that have finished; this covers the
+ * ones still in flight.
+ */
+final class ScheduleFlights {
+
+    private final Map<Integer, Flight> flights = new HashMap<>();
+
+    /**
+     * @param start launches the generation; it is only called when no matching flight is running,
+     *              and receives the consumer that fans blocks out to every subscriber. It runs outside
+     *              the registry lock, so a slow start (e.g. a synchronous local solve) never holds up
+     *              other users, and a start that throws fails the flight instead of leaving it registered.
+     */
+    CompletableFuture<List<ScheduleBlock>> join(int userId, String fingerprint, Consumer<ScheduleBlock> onBlock,
+                                                Function<Consumer<ScheduleBlock>, CompletableFuture<List<ScheduleBlock>>> start) {
+        Flight flight;
+        Flight superseded = null;
+        boolean created = false;
+        synchronized (this) {
+            flight = flights.get(userId);
+            if (flight != null && (flight.work.isDone() || !flight.fingerprint.equals(fingerprint))) {
+                superseded = flight.work.isDone() ? null : flight;
+                flight = null;
+            }
+            if (flight == null) {
+                flight = new Flight(fingerprint);
+                flights.put(userId, flight);
+                created = true;
+            }
+        }
+        if (superseded != null) {
+            superseded.work.cancel(true);
+        }
+        if (created) {
+            Flight started = flight;
+            started.work.whenComplete((blocks, error) -> remove(userId, started));
+        }
+        CompletableFuture<List<ScheduleBlock>> view = flight.subscribe(onBlock);
+        if (created) {
+            flight.launch(start);
+        }
+        return view;
+    }
+
+    private synchronized void remove(int userId, Flight flight) {
+        flights.remove(userId, flight);
+    }
+
+    /** Number of generations currently running, across all users. */
+    synchronized int inFlight() {
+        return flights.size();
+    }
+
+    private static final class Flight {
+        private final String fingerprint;
+        private final List<ScheduleBlock> emitted = new ArrayList<>();
+        private final List<Consumer<ScheduleBlock>> listeners = new ArrayList<>();
+        // Exists before the generation is started, so callers that join meanwhile can subscribe to it.
+        private final CompletableFuture<List<ScheduleBlock>> work = new CompletableFuture<>();
+        private int subscribers;
+
+        private Flight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private void launch(Function<Consumer<ScheduleBlock>, CompletableFuture<List<ScheduleBlock>>> start) {
+            if (work.isDone()) return; // superseded or abandoned before it started
+            CompletableFuture<List<ScheduleBlock>> generation;
+            try {
+                generation = start.apply(this::emit);
+            } catch (RuntimeException | Error e) {
+                work.completeExceptionally(e);
+                return;
+            }
+            generation.whenComplete((blocks, error) -> {
+                if (error == null) work.complete(blocks);
+                else work.completeExceptionally(error);
+            });
+            // Cancelling the shared work (superseded, or nobody waiting) stops the generation itself.
+            work.whenComplete((blocks, error) -> {
+                if (error != null) generation.cancel(true);
+            });
+        }
+
+        // Held while delivering so that a joining subscriber's replay cannot interleave with live blocks.
+        private synchronized void emit(ScheduleBlock block) {
+            emitted.add(block);
+            for (Consumer<ScheduleBlock> listener : listeners) {
+                listener.accept(block);
+            }
+        }
+
+        private CompletableFuture<List<ScheduleBlock>> subscribe(Consumer<ScheduleBlock> onBlock) {
+            synchronized (this) {
+                emitted.forEach(onBlock);
+                listeners.add(onBlock);
+                subscribers++;
+            }
+            CompletableFuture<List<ScheduleBlock>> view = new CompletableFuture<>();
+            work.whenComplete((blocks, error) -> {
+                if (error == null) view.complete(blocks);
+                else view.completeExceptionally(error);
+            });
+            view.whenComplete((blocks, error) -> unsubscribe(onBlock));
+            return view;
+        }
+
+        private void unsubscribe(Consumer<ScheduleBlock> onBlock) {
+            boolean abandoned;
+            synchronized (this) {
+                listeners.remove(onBlock);
+                abandoned = --subscribers == 0;
+            }
+            if (abandoned && !work.isDone()) {
+                work.cancel(true);
+            }
+        }
+    }
+}
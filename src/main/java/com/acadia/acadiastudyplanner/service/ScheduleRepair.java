@@ -0,0 +1,51 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of an incremental re-plan: which stored blocks survive, which must be deleted, and
+ * which new blocks cover the minutes that are no longer scheduled.
+ */
+public final class ScheduleRepair {
+
+    private final List<ScheduleBlock> kept;
+    private final List<ScheduleBlock> removed;
+    private final List<ScheduleBlock> added;
+
+    public ScheduleRepair(List<ScheduleBlock> kept, List<ScheduleBlock> removed, List<ScheduleBlock> added) {
+        this.kept = List.copyOf(kept);
+        this.removed = List.copyOf(removed);
+        this.added = List.copyOf(added);
+    }
+
+    public List<ScheduleBlock> getKept() { return kept; }
+    public List<ScheduleBlock> getRemoved() { return removed; }
+    public List<ScheduleBlock> getAdded() { return added; }
+
+    public boolean hasChanges() {
+        return !removed.isEmpty() || !added.isEmpty();
+    }
+
+    /** Row IDs of the removed blocks, for DatabaseManager.applyScheduleDelta. */
+    public List<Integer> getRemovedRowIds() {
+        return removed.stream().map(ScheduleBlock::getRowId).collect(Collectors.toList());
+    }
+
+    /** The full schedule after the repair, in time order. */
+    public List<ScheduleBlock> getSchedule() {
+        List<ScheduleBlock> schedule = new ArrayList<>(kept);
+        schedule.addAll(added);
+        schedule.sort(Comparator.comparingInt(ScheduleBlock::getStartMinute));
+        return schedule;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScheduleRepair[kept=%d, removed=%d, added=%d]", kept.size(), removed.size(), added.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.data.DatabaseManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed cache of AI schedule responses, persisted in the ScheduleCache table.
+ * The key is a SHA-256 of the canonical request, so an unchanged set of subjects, tasks,
+ * preferences and slots for the same planning week maps to the same entry. Entries expire after
+ * a TTL, and the table is capped at a maximum number of entries with least-recently-used eviction.
+ * Cache failures are logged and treated as misses; they never fail a schedule generation.
+ */
+public class ScheduleResponseCache {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ScheduleResponseCache(Duration ttl, int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+    }
+
+    /** TTL and size from -Dacadia.cache.ttlHours (default 24) and -Dacadia.cache.maxEntries (default 200). */
+    public static ScheduleResponseCache fromSystemProperties() {
+        return new ScheduleResponseCache(Duration.ofHours(Long.getLong("acadia.cache.ttlHours", 24)),
+                Integer.getInteger("acadia.cache.maxEntries", 200));
+    }
+
+    /**
+     * Stable cache key for a canonical request string.
+     */
+    public static String fingerprint(String canonicalRequest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /** @return the cached response, or null on a miss. */
+    public String get(String key) {
+        long now = System.currentTimeMillis();
+        try {
+            String response = DatabaseManager.getCachedScheduleResponse(key, now - ttl.toMillis(), now);
+            (response != null ? hits : misses).incrementAndGet();
+            return response;
+        } catch (SQLException e) {
+            System.err.println("Schedule cache lookup failed: " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void put(String key, int userId, String response) {
+        long now = System.currentTimeMillis();
+        try {
+            DatabaseManager.putCachedScheduleResponse(key, userId, response, now, now - ttl.toMillis(), maxEntries);
+        } catch (SQLException e) {
+            System.err.println("Schedule cache store failed: " + e.getMessage());
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("ScheduleResponseCache[hits=%d, misses=%d, ttl=%s, maxEntries=%d]", hits.get(), misses.get(), ttl, maxEntries);
+    }
+}
@@ -0,0 +1,145 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass parser for Gemini's {@code streamGenerateContent?alt=sse} response.
+ * <p>
+ * Each server-sent event carries a small envelope whose {@code candidates[0].content.parts[*].text}
+ * is the next fragment of the schedule's JSON array. The fragments are exposed as one continuous
+ * {@link Reader}, and a Gson {@link JsonReader} over it emits every {@link ScheduleBlock} as soon as
+ * its closing brace arrives. Neither the response body nor the inner JSON text is ever held in full.
+ */
+public final class ScheduleStreamParser {
+
+    private static final Gson GSON = new Gson();
+
+    private ScheduleStreamParser() {}
+
+    /**
+     * Reads the SSE stream to the end, handing each block to {@code onBlock} as it is completed.
+     *
+     * @return the number of blocks emitted
+     */
+    public static int parse(InputStream sseStream, Consumer<ScheduleBlock> onBlock) throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(sseStream, StandardCharsets.UTF_8));
+        try (JsonReader schedule = new JsonReader(new FragmentReader(lines))) {
+            int count = 0;
+            if (schedule.peek() == JsonToken.END_DOCUMENT) return 0;
+            schedule.beginArray();
+            while (schedule.hasNext()) {
+                ScheduleBlock block = GSON.fromJson(schedule, ScheduleBlock.class);
+                onBlock.accept(block);
+                count++;
+            }
+            schedule.endArray();
+            return count;
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Unexpected Gemini stream format: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Concatenates the text parts of successive SSE events into one character stream.
+     */
+    private static final class FragmentReader extends Reader {
+        private final BufferedReader lines;
+        private String fragment = "";
+        private int position = 0;
+        private boolean finished = false;
+
+        private FragmentReader(BufferedReader lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            while (position >= fragment.length()) {
+                if (finished || !nextFragment()) {
+                    finished = true;
+                    return -1;
+                }
+            }
+            int n = Math.min(length, fragment.length() - position);
+            fragment.getChars(position, position + n, buffer, offset);
+            position += n;
+            return n;
+        }
+
+        // Advances to the next event that carries text; returns false at end of stream.
+        private boolean nextFragment() throws IOException {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (!line.startsWith("data:")) continue; // blank separators, comments, other SSE fields
+                String text = extractText(line.substring(5).trim());
+                if (!text.isEmpty()) {
+                    fragment = text;
+                    position = 0;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            lines.close();
+        }
+    }
+
+    /**
+     * Walks one event envelope and returns the concatenated text of candidates[0].content.parts.
+     */
+    static String extractText(String eventJson) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (JsonReader event = new JsonReader(new StringReader(eventJson))) {
+            event.beginObject();
+            while (event.hasNext()) {
+                if (!event.nextName().equals("candidates")) { event.skipValue(); continue; }
+                event.beginArray();
+                if (event.hasNext()) {
+                    readCandidate(event, text);
+                }
+                while (event.hasNext()) event.skipValue(); // only the first candidate is used
+                event.endArray();
+            }
+            event.endObject();
+        }
+        return text.toString();
+    }
+
+    private static void readCandidate(JsonReader event, StringBuilder text) throws IOException {
+        event.beginObject();
+        while (event.hasNext()) {
+            if (!event.nextName().equals("content")) { event.skipValue(); continue; }
+            event.beginObject();
+            while (event.hasNext()) {
+                if (!event.nextName().equals("parts")) { event.skipValue(); continue; }
+                event.beginArray();
+                while (event.hasNext()) {
+                    event.beginObject();
+                    while (event.hasNext()) {
+                        if (event.nextName().equals("text")) text.append(event.nextString()); else event.skipValue();
+                    }
+                    event.endObject();
+                }
+                event.endArray();
+            }
+            event.endObject();
+        }
+        event.endObject();
+    }
+}
@@ -0,0 +1,81 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.Subject;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a {@link ScheduleEngine} needs to plan one user's week, loaded once up front.
+ * The week is identified by the epoch-day of its Monday.
+ */
+public final class SchedulingContext {
+
+    private final int userId;
+    private final int weekStartDay;
+    private final List<Subject> subjects;
+    private final List<StudyTask> pendingTasks;
+    private final List<AvailabilitySlot> availability;
+    private final int breakLength;
+    private final int breakFrequency;
+    private final String learningPreferences;
+
+    public SchedulingContext(int userId, int weekStartDay, List<Subject> subjects, List<StudyTask> pendingTasks,
+                             List<AvailabilitySlot> availability, int breakLength, int breakFrequency,
+                             String learningPreferences) {
+        this.userId = userId;
+        this.weekStartDay = weekStartDay;
+        this.subjects = List.copyOf(subjects);
+        this.pendingTasks = List.copyOf(pendingTasks);
+        this.availability = List.copyOf(availability);
+        this.breakLength = breakLength;
+        this.breakFrequency = breakFrequency;
+        this.learningPreferences = learningPreferences;
+    }
+
+    /**
+     * Builds a context from the preference map returned by {@code DatabaseManager.loadUserPreferences}.
+     */
+    public static SchedulingContext of(int userId, int weekStartDay, List<Subject> subjects, List<StudyTask> pendingTasks,
+                                       List<AvailabilitySlot> availability, Map<String, Object> prefs) {
+        Object preferences = prefs.get("LearningPreferences");
+        return new SchedulingContext(userId, weekStartDay, subjects, pendingTasks, availability,
+                (int) prefs.getOrDefault("BreakLength", 15),
+                (int) prefs.getOrDefault("BreakFrequency", 60),
+                preferences == null ? "No specific learning style provided." : (String) preferences);
+    }
+
+    /**
+     * SHA-256 over every input that can change the schedule, independent of the order rows were loaded in.
+     * Two contexts with the same fingerprint produce the same plan from a given engine.
+     */
+    public String fingerprint() {
+        StringBuilder canonical = new StringBuilder();
+        canonical.append(weekStartDay).append('|').append(breakLength).append('|').append(breakFrequency).append('|').append(learningPreferences).append('\n');
+        subjects.stream()
+                .sorted(Comparator.comparingInt(Subject::getId))
+                .forEach(s -> canonical.append("S|").append(s.getId()).append('|').append(s.getName()).append('|')
+                        .append(s.getDifficulty()).append('|').append(s.getExamDate()).append('\n'));
+        pendingTasks.stream()
+                .sorted(Comparator.comparingInt(StudyTask::getId))
+                .forEach(t -> canonical.append("T|").append(t.getId()).append('|').append(t.getSubjectId()).append('|')
+                        .append(t.getTitle()).append('|').append(t.getTaskType()).append('|')
+                        .append(t.getDurationMinutes()).append('|').append(t.getDeadlineDay()).append('\n'));
+        availability.stream()
+                .sorted()
+                .forEach(a -> canonical.append("A|").append(a.getStartMinute()).append('-').append(a.getEndMinute()).append('\n'));
+        return ScheduleResponseCache.fingerprint(canonical.toString());
+    }
+
+    public int getUserId() { return userId; }
+    public int getWeekStartDay() { return weekStartDay; }
+    public List<Subject> getSubjects() { return subjects; }
+    public List<StudyTask> getPendingTasks() { return pendingTasks; }
+    public List<AvailabilitySlot> getAvailability() { return availability; }
+    public int getBreakLength() { return breakLength; }
+    public int getBreakFrequency() { return breakFrequency; }
+    public String getLearningPreferences() { return learningPreferences; }
+}
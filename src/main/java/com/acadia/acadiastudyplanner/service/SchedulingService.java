@@ -1,138 +1,342 @@
 package com.acadia.acadiastudyplanner.service;
 
 import com.acadia.acadiastudyplanner.data.DatabaseManager;
+import com.acadia.acadiastudyplanner.data.UserRepository;
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.ScheduleBlock;
 import com.acadia.acadiastudyplanner.model.Subject;
 import com.acadia.acadiastudyplanner.model.StudyTask;
-import com.acadia.acadiastudyplanner.controller.LoginController;
+import com.acadia.acadiastudyplanner.model.WeekTime;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class SchedulingService {
 
-    // IMPORTANT: Load the API key from an environment variable for security
-    private static final String API_KEY = System.getenv("GEMINI_API_KEY");
-    private static final String API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent?key=" + API_KEY;
-    private static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
+    /**
+     * Which engine produces the schedule. Selected with -Dacadia.scheduler.engine=local|remote|hybrid.
+     */
+    public enum EngineMode {
+        /** In-process solver only; works offline and returns in milliseconds. */
+        LOCAL,
+        /** Gemini only (the original behaviour). */
+        REMOTE,
+        /** Local solver first, then ask Gemini to refine the draft; falls back to the draft if the call fails. */
+        HYBRID;
+
+        public static EngineMode fromSystemProperties() {
+            String value = System.getProperty("acadia.scheduler.engine");
+            if (value == null || value.isBlank()) {
+                return RemoteScheduleEngine.isConfigured() ? HYBRID : LOCAL;
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Weeks kept planned ahead by {@link #extendHorizon(int)} from the dashboard;
+     * -Dacadia.scheduler.horizonWeeks (default 1, which keeps to single-week planning).
+     */
+    public static final int HORIZON_WEEKS = Math.max(1, Integer.getInteger("acadia.scheduler.horizonWeeks", 1));
+
+    /** End-to-end limit for an asynchronous generation; -Dacadia.scheduler.timeoutSeconds (default 90). */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(Long.getLong("acadia.scheduler.timeoutSeconds", 90));
+
+    // Runs the database loads and the blocking read of streamed responses. Concurrent JDBC work is
+    // already bounded by the connection pool, so the executor itself does not need a size limit.
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "acadia-scheduler-" + WORKER_COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Shared by every service instance so that concurrent requests for one user meet in the same place.
+    private static final ScheduleFlights FLIGHTS = new ScheduleFlights();
 
     private final int userId;
+    private final UserRepository repository;
+    private final EngineMode mode;
+    private final LocalScheduleEngine localEngine;
+    private final RemoteScheduleEngine remoteEngine;
+
+    public SchedulingService(int userId, EngineMode mode) {
+        this(new UserRepository(userId), mode);
+    }
 
-    public SchedulingService() {
-        this.userId = LoginController.currentUserID;
-        if (this.userId == -1) {
-            throw new IllegalStateException("SchedulingService initialized without a logged-in user.");
+    /**
+     * @param repository source of the scheduling inputs; sharing the session's repository lets repeated
+     *                   generations reuse what is already in memory
+     */
+    public SchedulingService(UserRepository repository, EngineMode mode) {
+        this.userId = repository.getUserId();
+        this.repository = repository;
+        if (this.userId <= 0) {
+            throw new IllegalStateException("SchedulingService initialized without a user.");
         }
-        if (API_KEY == null || API_KEY.isBlank()) {
-            throw new IllegalStateException("GEMINI_API_KEY environment variable not set.");
+        this.mode = mode;
+        this.localEngine = new LocalScheduleEngine();
+        // Only the remote modes need an API key; HYBRID degrades to local-only without one.
+        if (mode == EngineMode.REMOTE) {
+            this.remoteEngine = new RemoteScheduleEngine();
+        } else if (mode == EngineMode.HYBRID && RemoteScheduleEngine.isConfigured()) {
+            this.remoteEngine = new RemoteScheduleEngine();
+        } else {
+            this.remoteEngine = null;
+        }
+    }
+
+    public EngineMode getMode() {
+        return mode;
+    }
+
+    public List<ScheduleBlock> generateWeeklySchedule() throws SQLException, IOException, InterruptedException {
+        return generateWeeklySchedule(block -> {});
+    }
+
+    /**
+     * Generates the schedule, passing each block to {@code onBlock} as soon as it is available so the
+     * caller can render it early. The returned list is the authoritative result: if a HYBRID refinement
+     * fails part-way, the blocks already streamed are superseded by the returned local draft.
+     * Returned blocks are dated in the planning week; streamed ones may not be.
+     */
+    public List<ScheduleBlock> generateWeeklySchedule(Consumer<ScheduleBlock> onBlock) throws SQLException, IOException, InterruptedException {
+        SchedulingContext context = loadContext();
+        int weekStart = context.getWeekStartDay();
+
+        switch (mode) {
+            case REMOTE:
+                return datedForWeek(remoteEngine.generate(context, onBlock), weekStart);
+            case HYBRID:
+                List<ScheduleBlock> draft = localEngine.generate(context);
+                if (remoteEngine == null || draft.isEmpty()) return draft;
+                try {
+                    return datedForWeek(remoteEngine.refine(context, draft, onBlock), weekStart);
+                } catch (IOException e) {
+                    System.err.println("Remote refinement failed, using local schedule: " + e.getMessage());
+                    return draft;
+                }
+            case LOCAL:
+            default:
+                return localEngine.generate(context, onBlock);
         }
     }
 
-    public String generateWeeklySchedule() throws SQLException, IOException, InterruptedException {
-        List<Subject> subjects = DatabaseManager.loadSubjects(userId);
-        List<StudyTask> pendingTasks = getPendingTasks();
-        Map<String, Object> prefs = DatabaseManager.loadUserPreferences(userId);
-        List<Map<String, Object>> availability = DatabaseManager.loadAvailableSlots(userId);
+    /**
+     * Non-blocking {@link #generateWeeklySchedule(Consumer)}. The four context loads run concurrently,
+     * and the remote engine uses {@code HttpClient.sendAsync}. Cancelling the returned future, or hitting
+     * {@code timeout}, aborts whichever stage is still running, including an in-flight HTTP request.
+     *
+     * @param persist also replace the user's stored schedule with the result before completing
+     */
+    public CompletableFuture<List<ScheduleBlock>> generateWeeklyScheduleAsync(Duration timeout, boolean persist,
+                                                                           Consumer<ScheduleBlock> onBlock) {
+        CompletableFuture<List<ScheduleBlock>> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<?>> inFlight = new AtomicReference<>();
+
+        CompletableFuture<SchedulingContext> load = loadContextAsync();
+        inFlight.set(load);
+        load.thenCompose(context -> {
+                    if (result.isDone()) throw new CancellationException();
+                    // Identical concurrent requests share one generation; a request with new inputs replaces it.
+                    String fingerprint = mode + "|" + context.fingerprint();
+                    CompletableFuture<List<ScheduleBlock>> generation =
+                            FLIGHTS.join(userId, fingerprint, onBlock, listener -> startEngine(context, listener));
+                    inFlight.set(generation);
+                    if (result.isDone()) generation.cancel(true); // cancelled while the stage was being set up
+                    return generation;
+                })
+                .thenApplyAsync(blocks -> {
+                    int weekStart = load.join().getWeekStartDay(); // the week the context was loaded for
+                    blocks = datedForWeek(blocks, weekStart);
+                    if (persist && !result.isDone()) {
+                        try {
+                            // Earlier weeks stay as history; later horizon weeks are re-planned on the next extension.
+                            DatabaseManager.replaceScheduleFrom(userId, weekStart, blocks);
+                            repository.invalidateTasks();
+                        } catch (SQLException e) {
+                            throw new CompletionException(e);
+                        }
+                    }
+                    return blocks;
+                }, WORKERS)
+                .whenComplete((blocks, error) -> {
+                    if (error == null) result.complete(blocks);
+                    else result.completeExceptionally(unwrap(error));
+                });
+
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((blocks, error) -> {
+            if (error != null) inFlight.get().cancel(true);
+        });
+        return result;
+    }
+
+    public CompletableFuture<List<ScheduleBlock>> generateWeeklyScheduleAsync(Consumer<ScheduleBlock> onBlock) {
+        return generateWeeklyScheduleAsync(DEFAULT_TIMEOUT, false, onBlock);
+    }
+
+    /**
+     * Starts the configured engine. Cancelling the returned future cancels the engine's own work.
+     */
+    private CompletableFuture<List<ScheduleBlock>> startEngine(SchedulingContext context, Consumer<ScheduleBlock> onBlock) {
+        switch (mode) {
+            case REMOTE:
+                return remoteEngine.generateAsync(context, onBlock, WORKERS);
+            case HYBRID:
+                List<ScheduleBlock> draft = localEngine.generate(context);
+                if (remoteEngine == null || draft.isEmpty()) return CompletableFuture.completedFuture(draft);
+                CompletableFuture<List<ScheduleBlock>> refined = remoteEngine.refineAsync(context, draft, onBlock, WORKERS);
+                CompletableFuture<List<ScheduleBlock>> withFallback = refined.exceptionally(error -> {
+                    Throwable cause = unwrap(error);
+                    if (!(cause instanceof IOException)) throw new CompletionException(cause);
+                    System.err.println("Remote refinement failed, using local schedule: " + cause.getMessage());
+                    return draft;
+                });
+                withFallback.whenComplete((blocks, error) -> {
+                    if (withFallback.isCancelled()) refined.cancel(true);
+                });
+                return withFallback;
+            case LOCAL:
+            default:
+                return localEngine.generateAsync(context, onBlock, WORKERS);
+        }
+    }
 
-        String systemInstruction = buildSystemInstruction(prefs);
-        String userQuery = buildUserQuery(subjects, pendingTasks, availability);
-        String jsonPayload = buildJsonPayload(userQuery, systemInstruction);
+    private CompletableFuture<SchedulingContext> loadContextAsync() {
+        int weekStart = localEngine.currentWeekStart();
+        CompletableFuture<List<Subject>> subjects = callAsync(repository::getSubjects);
+        CompletableFuture<List<StudyTask>> pendingTasks = callAsync(repository::getPendingTasks);
+        CompletableFuture<Map<String, Object>> prefs = callAsync(repository::getPreferences);
+        CompletableFuture<List<AvailabilitySlot>> availability = callAsync(repository::getSlots);
+        return CompletableFuture.allOf(subjects, pendingTasks, prefs, availability)
+                .thenApply(ignored -> SchedulingContext.of(userId, weekStart, subjects.join(), pendingTasks.join(), availability.join(), prefs.join()));
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_URL))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
-                .build();
+    private static <T> CompletableFuture<T> callAsync(Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.run();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, WORKERS);
+    }
 
-        HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    /** Strips the CompletionException/ExecutionException wrappers CompletableFuture adds around a failure. */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
 
-        if (response.statusCode() != 200) {
-            throw new IOException("Gemini API call failed with status: " + response.statusCode() + ". Response body: " + response.body());
+    /**
+     * Re-plans the stored schedule after small edits (a task completed or added, a slot removed) instead
+     * of regenerating the week. Always uses the local solver, and writes only the rows that changed.
+     * Does nothing if the user has no stored schedule yet.
+     */
+    public ScheduleRepair repairSchedule() throws SQLException {
+        List<ScheduleBlock> existing = DatabaseManager.loadScheduledBlocks(userId);
+        if (existing.isEmpty()) {
+            return new ScheduleRepair(List.of(), List.of(), List.of());
+        }
+        ScheduleRepair repair = localEngine.repair(loadContext(), existing);
+        if (repair.hasChanges()) {
+            DatabaseManager.applyScheduleDelta(userId, repair.getRemovedRowIds(), repair.getAdded());
+            repository.invalidateTasks();
         }
-        return response.body();
-    }
-
-    private List<StudyTask> getPendingTasks() throws SQLException {
-        return DatabaseManager.loadTasksForProgress(userId).stream()
-                .filter(task -> task.getStatus().equalsIgnoreCase("Pending"))
-                .collect(Collectors.toList());
-    }
-
-    private String buildSystemInstruction(Map<String, Object> prefs) {
-        String preferences = (String) prefs.getOrDefault("LearningPreferences", "No specific learning style provided.");
-        int breakLength = (int) prefs.getOrDefault("BreakLength", 15);
-        int breakFrequency = (int) prefs.getOrDefault("BreakFrequency", 60);
-
-        return String.format(
-                "You are an expert academic scheduling AI. Your goal is to create an optimized weekly study schedule. " +
-                        "Prioritize tasks based on difficulty, duration, and deadline. " +
-                        "The user's preference is: %s. " +
-                        "Ensure study blocks are separated by a minimum %d-minute break, occurring after every %d minutes of focused study. " +
-                        "The output MUST be a JSON array of scheduled tasks for the week.",
-                preferences, breakLength, breakFrequency
-        );
-    }
-
-    private String buildUserQuery(List<Subject> subjects, List<StudyTask> tasks, List<Map<String, Object>> availability) {
-        String subjectsStr = subjects.stream()
-                .map(s -> String.format("{Name: %s, Difficulty: %d, Exam: %s}", s.getName(), s.getDifficulty(), s.getExamDate()))
-                .collect(Collectors.joining("; "));
-
-        String tasksStr = tasks.stream()
-                .map(t -> String.format("{Title: %s, Subject: %s, Type: %s, Duration: %s, Deadline: %s}",
-                        t.getTitle(), t.getSubjectName(), t.getTaskType(), t.getDurationEstimate(), t.getDeadlineDate()))
-                .collect(Collectors.joining("; "));
-
-        String availabilityStr = availability.stream()
-                .map(a -> String.format("{Day: %s, Start: %s, End: %s}", a.get("DayOfWeek"), a.get("StartTime"), a.get("EndTime")))
-                .collect(Collectors.joining("; "));
-
-        return String.format(
-                "--- USER DATA ---\n" +
-                        "Subjects: [%s]\n" +
-                        "Pending Tasks: [%s]\n" +
-                        "Available Slots (REQUIRED for scheduling): [%s]\n\n" +
-                        "Generate the schedule for the next 7 days, starting from Monday, using ONLY the available slots. " +
-                        "Each scheduled block must be under 120 minutes. Output the schedule as a JSON array.",
-                subjectsStr, tasksStr, availabilityStr
-        );
-    }
-
-    private String buildJsonPayload(String userQuery, String systemInstruction) {
-        String responseSchema = """
-            {
-              "type": "ARRAY",
-              "items": {
-                "type": "OBJECT",
-                "properties": {
-                  "day": {"type": "STRING", "description": "MON, TUE, WED, etc."},
-                  "subject_name": {"type": "STRING"},
-                  "task_title": {"type": "STRING"},
-                  "time_start": {"type": "STRING", "description": "HH:MM format"},
-                  "time_end": {"type": "STRING", "description": "HH:MM format"}
-                },
-                "required": ["day", "subject_name", "task_title", "time_start", "time_end"]
-              }
+        return repair;
+    }
+
+    public CompletableFuture<ScheduleRepair> repairScheduleAsync() {
+        return callAsync(this::repairSchedule);
+    }
+
+    /**
+     * Plans {@code weeks} weeks from the current planning week in one pass with the local solver and
+     * replaces the stored schedule from that week on.
+     */
+    public List<ScheduleBlock> planHorizon(int weeks) throws SQLException {
+        int weekStart = localEngine.currentWeekStart();
+        List<ScheduleBlock> blocks = localEngine.planHorizon(loadContext(), weekStart, weeks, Map.of());
+        DatabaseManager.replaceScheduleFrom(userId, weekStart, blocks);
+        repository.invalidateTasks();
+        return blocks;
+    }
+
+    /**
+     * Rolls the planned horizon forward so that it covers {@code weeks} weeks from the current planning
+     * week. Only the weeks not yet planned are computed and inserted; the stored plan for earlier weeks
+     * is left as it is, and the minutes it already covers are not planned again.
+     *
+     * @return the blocks that were added; empty when the horizon already reaches far enough
+     */
+    public List<ScheduleBlock> extendHorizon(int weeks) throws SQLException {
+        int weekStart = localEngine.currentWeekStart();
+        int horizonEnd = weekStart + 7 * weeks;
+
+        int plannedUntil = weekStart;
+        Map<Integer, Integer> coveredMinutes = new HashMap<>();
+        for (ScheduleBlock block : DatabaseManager.loadScheduledBlocks(userId)) {
+            int day;
+            try {
+                day = block.dayIn(weekStart);
+            } catch (IllegalArgumentException e) {
+                continue;
             }
-            """;
-        return String.format(
-                "{\n" +
-                        "  \"contents\": [{\"parts\": [{\"text\": \"%s\"}]}],\n" +
-                        "  \"systemInstruction\": {\"parts\": [{\"text\": \"%s\"}]},\n" +
-                        "  \"generationConfig\": {\n" +
-                        "    \"responseMimeType\": \"application/json\",\n" +
-                        "    \"responseSchema\": %s\n" +
-                        "  }\n" +
-                        "}",
-                userQuery.replace("\"", "\\\"").replace("\n", "\\n"),
-                systemInstruction.replace("\"", "\\\"").replace("\n", "\\n"),
-                responseSchema.replaceAll("\\s+", " ")
-        );
-    }
-}
\ No newline at end of file
+            if (day < weekStart) continue;
+            // Planning always covers whole weeks, so the horizon ends on the Monday after the last planned day.
+            plannedUntil = Math.max(plannedUntil, weekStart + 7 * ((day - weekStart) / 7 + 1));
+            if (block.getTaskId() != WeekTime.UNSET) {
+                coveredMinutes.merge(block.getTaskId(), block.getEndMinute() - block.getStartMinute(), Integer::sum);
+            }
+        }
+        if (plannedUntil >= horizonEnd) {
+            return List.of();
+        }
+        List<ScheduleBlock> added = localEngine.planHorizon(loadContext(), plannedUntil, (horizonEnd - plannedUntil) / 7, coveredMinutes);
+        DatabaseManager.applyScheduleDelta(userId, List.of(), added);
+        repository.invalidateTasks();
+        return added;
+    }
+
+    public CompletableFuture<List<ScheduleBlock>> extendHorizonAsync(int weeks) {
+        return callAsync(() -> extendHorizon(weeks));
+    }
+
+    // Gives undated blocks (e.g. from the AI, which plans weekdays only) the date of their weekday in the given week.
+    private static List<ScheduleBlock> datedForWeek(List<ScheduleBlock> blocks, int weekStart) {
+        List<ScheduleBlock> dated = new ArrayList<>(blocks.size());
+        for (ScheduleBlock block : blocks) {
+            dated.add(block.getDate() != null ? block : block.onDay(block.dayIn(weekStart)));
+        }
+        return dated;
+    }
+
+    SchedulingContext loadContext() throws SQLException {
+        return SchedulingContext.of(userId, localEngine.currentWeekStart(), repository.getSubjects(),
+                repository.getPendingTasks(), repository.getSlots(), repository.getPreferences());
+    }
+
+    @FunctionalInterface
+    private interface Query<T> {
+        T run() throws SQLException;
+    }
+}
@@ -0,0 +1,37 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.data.UserRepository;
+
+/**
+ * Services bound to one {@link UserSession}. The UI creates one at sign-in and hands it to every
+ * controller through the FXML controller factory; headless code creates one per user it serves.
+ * Nothing here is global, so registries for different users never share mutable state.
+ */
+public final class ServiceRegistry {
+
+    private final UserSession session;
+    private final UserRepository repository;
+
+    public ServiceRegistry(UserSession session) {
+        this.session = session;
+        this.repository = new UserRepository(session.getUserId());
+    }
+
+    public UserSession getSession() {
+        return session;
+    }
+
+    /** The session's data, cached in memory across views; see {@link UserRepository}. */
+    public UserRepository getRepository() {
+        return repository;
+    }
+
+    /** Scheduling with the engine selected by -Dacadia.scheduler.engine. */
+    public SchedulingService schedulingService() {
+        return schedulingService(SchedulingService.EngineMode.fromSystemProperties());
+    }
+
+    public SchedulingService schedulingService(SchedulingService.EngineMode mode) {
+        return new SchedulingService(repository, mode);
+    }
+}
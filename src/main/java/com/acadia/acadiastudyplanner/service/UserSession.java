@@ -0,0 +1,28 @@
+package com.acadia.acadiastudyplanner.service;
+
+/**
+ * The signed-in user a set of services acts for. Immutable, so one instance can be shared freely
+ * between the UI thread and background work, and any number of sessions can exist side by side
+ * (several users in a batch job, a test, or a server).
+ */
+public final class UserSession {
+
+    private final int userId;
+    private final String username;
+
+    public UserSession(int userId, String username) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("Invalid user ID for a session: " + userId);
+        }
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public int getUserId() { return userId; }
+    public String getUsername() { return username; }
+
+    @Override
+    public String toString() {
+        return "UserSession[" + userId + ", " + username + "]";
+    }
+}
@@ -4,9 +4,11 @@ module com.acadia.acadiastudyplanner {
 
     requires org.xerial.sqlitejdbc;
     requires java.net.http;
+    requires com.google.gson;
 
     opens com.acadia.acadiastudyplanner to javafx.fxml;
     opens com.acadia.acadiastudyplanner.controller to javafx.fxml;
+    opens com.acadia.acadiastudyplanner.model to com.google.gson;
 
     exports com.acadia.acadiastudyplanner;
     exports com.acadia.acadiastudyplanner.model;
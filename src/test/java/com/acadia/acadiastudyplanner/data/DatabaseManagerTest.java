@@ -0,0 +1,57 @@
+package com.acadia.acadiastudyplanner.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Schema startup: a failed migration must reach the caller rather than leave a half-migrated database
+ * that looks ready.
+ */
+class DatabaseManagerTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void open() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("startup.db"));
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void brokenMigrationReachesTheCaller() throws SQLException {
+        List<Migration> migrations = List.of(
+                Migration.of(1, "create table", "CREATE TABLE Note (NoteID INTEGER PRIMARY KEY, Body TEXT)"),
+                Migration.of(2, "broken", "ALTER TABLE Missing ADD COLUMN Body TEXT"));
+
+        SQLException failure = assertThrows(SQLException.class, () -> DatabaseManager.migrateSchema(conn, migrations));
+
+        assertTrue(failure.getMessage().contains("v2 (broken)"), failure.getMessage());
+        assertEquals(1, SchemaMigrator.currentVersion(conn), "the failed step must roll back to the last good version");
+    }
+
+    @Test
+    void currentSchemaMigratesCleanly() throws SQLException {
+        List<Migration> all = Migrations.all();
+        DatabaseManager.migrateSchema(conn, all);
+        assertEquals(all.get(all.size() - 1).getVersion(), SchemaMigrator.currentVersion(conn));
+    }
+}
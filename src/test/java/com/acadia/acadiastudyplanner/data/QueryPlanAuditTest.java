@@ -0,0 +1,72 @@
+package com.acadia.acadiastudyplanner.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every filtered DatabaseManager statement must be served by an index or key on the latest schema.
+ * A new query, or a migration that drops an index, fails here instead of slowing down large databases.
+ */
+class QueryPlanAuditTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void migrateFreshDatabase() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("audit.db"));
+        SchemaMigrator.migrate(conn, Migrations.all());
+        List<Migration> all = Migrations.all();
+        assertEquals(all.get(all.size() - 1).getVersion(), SchemaMigrator.currentVersion(conn));
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void noAuditedQueryScansATable() throws SQLException {
+        List<String> scans = new ArrayList<>();
+        for (Map.Entry<String, String> query : QueryPlanAudit.auditedQueries().entrySet()) {
+            List<String> plan = QueryPlanAudit.explain(conn, query.getValue());
+            assertFalse(plan.isEmpty(), query.getKey() + " produced no plan");
+            for (String step : plan) {
+                if (QueryPlanAudit.isFullScan(step)) {
+                    scans.add(query.getKey() + ": " + step);
+                }
+            }
+        }
+        assertTrue(scans.isEmpty(), "Queries without a usable index:\n" + String.join("\n", scans));
+    }
+
+    @Test
+    void fullScanIsDetected() throws SQLException {
+        List<String> plan = QueryPlanAudit.explain(conn, "SELECT * FROM StudyTask WHERE Title = ?");
+        assertTrue(plan.stream().anyMatch(QueryPlanAudit::isFullScan), "plan was " + plan);
+    }
+
+    // The eviction has to visit entries in recency order; that must come from the index, not a sort.
+    @Test
+    void cacheEvictionWalksTheRecencyIndex() throws SQLException {
+        List<String> plan = QueryPlanAudit.explain(conn, DatabaseManager.SQL_CACHE_EVICT);
+        assertTrue(plan.stream().anyMatch(step -> step.contains("USING INDEX idx_ScheduleCache_LastAccessed")), "plan was " + plan);
+        assertFalse(plan.stream().anyMatch(step -> step.contains("TEMP B-TREE")), "plan was " + plan);
+    }
+}
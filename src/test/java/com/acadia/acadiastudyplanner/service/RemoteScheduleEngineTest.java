@@ -0,0 +1,52 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.acadia.acadiastudyplanner.model.AvailabilitySlot;
+import com.acadia.acadiastudyplanner.model.StudyTask;
+import com.acadia.acadiastudyplanner.model.Subject;
+import com.acadia.acadiastudyplanner.model.WeekTime;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The request payload must be valid JSON whatever the user typed into free-text fields.
+ */
+class RemoteScheduleEngineTest {
+
+    @Test
+    void controlCharactersInPreferencesStayValidJson() {
+        String preferences = "Mornings\tonly\r\nNo \"cramming\" \\ breaks\u0001\u001f, <focus> & rest";
+        PromptBuilder.Prompt prompt = new PromptBuilder(4000).build(context(preferences), null);
+
+        String payload = RemoteScheduleEngine.buildJsonPayload(prompt);
+
+        JsonObject json = JsonParser.parseString(payload).getAsJsonObject();
+        assertTrue(prompt.getSystemInstruction().contains(preferences), "preferences reach the instruction unchanged");
+        assertEquals(prompt.getSystemInstruction(), text(json.getAsJsonObject("systemInstruction")));
+        assertEquals(prompt.getUserQuery(), text(json.getAsJsonArray("contents").get(0).getAsJsonObject()));
+        assertEquals("ARRAY", json.getAsJsonObject("generationConfig")
+                .getAsJsonObject("responseSchema").get("type").getAsString());
+        for (char c = 0; c < 0x20; c++) {
+            assertTrue(payload.indexOf(c) < 0, "raw control character U+" + Integer.toHexString(c) + " in payload");
+        }
+    }
+
+    private static String text(JsonObject content) {
+        return content.getAsJsonArray("parts").get(0).getAsJsonObject().get("text").getAsString();
+    }
+
+    private static SchedulingContext context(String preferences) {
+        int week = WeekTime.upcomingWeekStart(LocalDate.of(2026, 10, 19));
+        return new SchedulingContext(1, week,
+                List.of(new Subject(1, "Maths", 3, null)),
+                List.of(new StudyTask(1, "Problem set", "Assignment", 90, WeekTime.UNSET)),
+                List.of(new AvailabilitySlot(1, 9 * 60, 12 * 60)),
+                15, 60, preferences);
+    }
+}
@@ -0,0 +1,234 @@
+package com.acadia.acadiastudyplanner.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ResilientHttpClient against a stub server on localhost: retries, the circuit breaker, hedging,
+ * cancellation and the body idle timeout.
+ */
+class ResilientHttpClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private HttpClient http;
+    private final CountDownLatch release = new CountDownLatch(1); // lets stalled handlers finish at teardown
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads); // slow handlers must not hold up the others
+        server.start();
+        http = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void retriesServiceUnavailable() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        handle("/flaky", exchange -> respond(exchange, calls.incrementAndGet() == 1 ? 503 : 200, "ok"));
+        ResilientHttpClient client = client(policy(3, 0, 5, Duration.ofSeconds(30)));
+
+        HttpResponse<InputStream> response = client.send(get("/flaky"));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("ok", body(response));
+        assertEquals(2, calls.get());
+        assertEquals(1, client.getRetries());
+    }
+
+    @Test
+    void breakerOpensThenHalfOpensAndCloses() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch probeArrived = new CountDownLatch(1);
+        CountDownLatch finishProbe = new CountDownLatch(1);
+        handle("/breaker", exchange -> {
+            if (calls.incrementAndGet() <= 2) {
+                respond(exchange, 500, "down");
+                return;
+            }
+            probeArrived.countDown();
+            await(finishProbe);
+            respond(exchange, 200, "up");
+        });
+        ResilientHttpClient client = client(policy(1, 0, 2, Duration.ofMillis(300)));
+
+        assertThrows(IOException.class, () -> client.send(get("/breaker")));
+        assertThrows(IOException.class, () -> client.send(get("/breaker")));
+        assertEquals("OPEN", client.getBreakerState());
+        assertThrows(ResilientHttpClient.CircuitOpenException.class, () -> client.send(get("/breaker")));
+        assertEquals(2, calls.get(), "an open breaker must not reach the server");
+
+        Thread.sleep(400);
+        CompletableFuture<HttpResponse<InputStream>> probe = client.sendAsync(get("/breaker"));
+        assertTrue(probeArrived.await(5, TimeUnit.SECONDS));
+        assertEquals("HALF_OPEN", client.getBreakerState());
+        assertThrows(ResilientHttpClient.CircuitOpenException.class, () -> client.send(get("/breaker")),
+                "only one probe at a time while half-open");
+
+        finishProbe.countDown();
+        assertEquals(200, probe.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals("CLOSED", client.getBreakerState());
+        assertEquals(200, client.send(get("/breaker")).statusCode());
+    }
+
+    @Test
+    void hedgedRequestWinsOverSlowPrimary() throws Exception {
+        AtomicInteger raceCalls = new AtomicInteger();
+        handle("/fast", exchange -> respond(exchange, 200, "fast"));
+        handle("/race", exchange -> {
+            if (raceCalls.incrementAndGet() == 1) await(release); // the primary never answers in time
+            respond(exchange, 200, "hedge");
+        });
+        ResilientHttpClient client = client(policy(1, 50, 5, Duration.ofSeconds(30)));
+        for (int i = 0; i < 20; i++) { // enough latency samples to enable hedging
+            body(client.send(get("/fast")));
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(get("/race"));
+
+        assertEquals("hedge", body(response));
+        assertEquals(1, client.getHedges());
+        assertEquals(2, raceCalls.get());
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+    }
+
+    @Test
+    void cancellationAbortsTheExchange() throws Exception {
+        CountDownLatch requestArrived = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        handle("/slow", exchange -> {
+            requestArrived.countDown();
+            sleep(300); // the client cancels before the headers are sent
+            byte[] chunk = new byte[64 * 1024];
+            try {
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                for (int i = 0; i < 1000; i++) { // writes fail once the client has dropped the connection
+                    out.write(chunk);
+                    out.flush();
+                    sleep(10);
+                }
+            } catch (IOException e) {
+                aborted.countDown();
+            }
+        });
+        ResilientHttpClient client = client(policy(3, 0, 5, Duration.ofSeconds(30)));
+
+        CompletableFuture<HttpResponse<InputStream>> future = client.sendAsync(get("/slow"));
+        assertTrue(requestArrived.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        assertTrue(future.isCancelled());
+        assertTrue(aborted.await(10, TimeUnit.SECONDS), "the server should see the connection dropped");
+        assertEquals(0, client.getRetries());
+    }
+
+    @Test
+    void stalledBodyFailsAfterIdleTimeout() throws Exception {
+        handle("/stall", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write("data: first\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            await(release); // then nothing more
+        });
+        ResilientHttpClient client = client(new RemoteCallPolicy(Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofMillis(300), 1, 10, 50, 0, 5, Duration.ofSeconds(30)));
+
+        HttpResponse<InputStream> response = client.send(get("/stall"));
+        InputStream body = response.body();
+        byte[] buffer = new byte[1024];
+        assertTrue(body.read(buffer) > 0);
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class, () -> {
+            while (body.read(buffer) >= 0) {
+                // keep reading until the stall is detected
+            }
+        });
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+    }
+
+    private ResilientHttpClient client(RemoteCallPolicy policy) {
+        return new ResilientHttpClient(http, policy);
+    }
+
+    private static RemoteCallPolicy policy(int maxAttempts, int hedgePercentile, int breakerThreshold, Duration breakerOpen) {
+        return new RemoteCallPolicy(Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(10), maxAttempts,
+                10, 50, hedgePercentile, breakerThreshold, breakerOpen);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path)).build();
+    }
+
+    private void handle(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String body(HttpResponse<InputStream> response) throws IOException {
+        try (InputStream in = response.body()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}